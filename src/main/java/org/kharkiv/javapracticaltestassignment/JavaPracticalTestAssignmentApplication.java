@@ -2,8 +2,10 @@ package org.kharkiv.javapracticaltestassignment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JavaPracticalTestAssignmentApplication {
 
     public static void main(String[] args) {
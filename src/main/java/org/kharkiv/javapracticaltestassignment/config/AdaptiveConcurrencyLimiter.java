@@ -0,0 +1,112 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to latency with a gradient, after Netflix's {@code Gradient2Limit}.
+ * <p>
+ * Latencies are averaged over windows of about {@code limit} completed requests. Each window's average
+ * is compared with a long exponential average over {@value #LONG_WINDOW} windows: while it stays within
+ * {@value #TOLERANCE} times the long one the limit grows by about its square root, once requests start
+ * queueing the ratio drops below 1 and pulls the limit down proportionally. The limit does not grow
+ * while less than half of it is in use.
+ * <p>
+ * Scans may only take {@code scanShare} of the limit, so cheap point requests still get in when
+ * scans pile up.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final int LONG_WINDOW = 600;
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double scanShare;
+
+    private volatile double limit;
+
+    private double longRtt;
+
+    private long windowRttSum;
+
+    private int windowSamples;
+
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double scanShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.scanShare = scanShare;
+    }
+
+    public boolean tryAcquire(boolean scan) {
+        int max = scan ? (int) Math.max(1, limit * scanShare) : (int) limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, current);
+    }
+
+    private synchronized void update(long rttNanos, int inFlight) {
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        if (++windowSamples < Math.max(MIN_WINDOW_SAMPLES, (int) limit)) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        }
+        longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,73 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.kharkiv.javapracticaltestassignment.exception.UserOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits {@code /users} requests through an {@link AdaptiveConcurrencyLimiter} and rejects the rest
+ * right away with a {@link UserOverloadedException}, instead of letting them queue for a worker thread.
+ * Full list and birth-date range reads count as scans; everything else is a point operation.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor, MeterBinder {
+
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final long retryAfterSeconds;
+
+    public AdmissionControlInterceptor(@Value("${limiter.initial-limit}") int initialLimit,
+                                       @Value("${limiter.min-limit}") int minLimit,
+                                       @Value("${limiter.max-limit}") int maxLimit,
+                                       @Value("${limiter.scan-share}") double scanShare,
+                                       @Value("${limiter.retry-after-seconds}") long retryAfterSeconds) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, scanShare);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!limiter.tryAcquire(isScan(request))) {
+            throw new UserOverloadedException("Too many concurrent requests, retry later", retryAfterSeconds);
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isScan(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals("/users") || path.equals("/users/");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("users.admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Admitted requests in progress")
+                .register(registry);
+        FunctionCounter.builder("users.admission.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Requests rejected with 503")
+                .register(registry);
+    }
+}
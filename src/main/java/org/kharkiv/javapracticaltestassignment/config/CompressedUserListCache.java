@@ -0,0 +1,215 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the full user list as gzip and deflate encoded JSON for one store version, so compression is
+ * paid once per version rather than once per request.
+ * <p>
+ * Nothing is built on writes. A read that finds no snapshot for the current version asks for one; the
+ * background thread waits until the version has stood still for {@code settleMs}, copies the users at a
+ * consistent version through {@link UserService#readSnapshot} and encodes them outside the lock. Lists
+ * under {@code minBytes} of JSON are not worth compressing and are left to the regular response.
+ */
+@Slf4j
+class CompressedUserListCache implements AutoCloseable {
+
+    private static final Type USER_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, User.class).getType();
+
+    private final UserService userService;
+
+    private final UserListHttpMessageConverter converter;
+
+    private final long settleMs;
+
+    private final int minBytes;
+
+    private final int level;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-list-compressor").daemon().factory());
+
+    private final AtomicBoolean buildRequested = new AtomicBoolean();
+
+    private final LongAdder builds = new LongAdder();
+
+    private volatile Snapshot snapshot;
+
+    CompressedUserListCache(UserService userService, UserListHttpMessageConverter converter,
+                            long settleMs, int minBytes, int level) {
+        this.userService = userService;
+        this.converter = converter;
+        this.settleMs = settleMs;
+        this.minBytes = minBytes;
+        this.level = level;
+    }
+
+    /**
+     * Returns the list encoded with {@code encoding} if it was built for {@code version}, otherwise null
+     * after asking for a build.
+     */
+    byte[] get(long version, ContentEncoding encoding) {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) {
+            return encoding == ContentEncoding.GZIP ? current.gzip() : current.deflate();
+        }
+        if (buildRequested.compareAndSet(false, true)) {
+            executor.schedule(() -> settle(version), settleMs, TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+
+    long getBuilds() {
+        return builds.sum();
+    }
+
+    private void settle(long seenVersion) {
+        long version = userService.getVersion();
+        if (version != seenVersion) {
+            executor.schedule(() -> settle(version), settleMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        try {
+            build();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not build compressed user list", e);
+        } finally {
+            buildRequested.set(false);
+        }
+    }
+
+    private void build() throws IOException {
+        List<List<User>> copy = new ArrayList<>(1);
+        long[] version = new long[1];
+        userService.readSnapshot((snapshotVersion, users) -> {
+            version[0] = snapshotVersion;
+            copy.add(new ArrayList<>(users));
+        });
+        if (copy.isEmpty() || (snapshot != null && snapshot.version() == version[0])) {
+            return;
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        converter.write(copy.get(0), USER_LIST_TYPE, MediaType.APPLICATION_JSON, new StreamOutputMessage(json));
+        if (json.size() < minBytes) {
+            snapshot = new Snapshot(version[0], null, null);
+        } else {
+            snapshot = new Snapshot(version[0], gzip(json), deflate(json));
+        }
+        builds.increment();
+    }
+
+    private byte[] gzip(ByteArrayOutputStream json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.size() / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 65536) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            json.writeTo(out);
+        }
+        return compressed.toByteArray();
+    }
+
+    private byte[] deflate(ByteArrayOutputStream json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.size() / 4);
+        Deflater deflater = new Deflater(level);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater, 65536)) {
+            json.writeTo(out);
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encodings of a store version; both null when the list was too small to compress.
+     */
+    private record Snapshot(long version, byte[] gzip, byte[] deflate) {
+    }
+
+    enum ContentEncoding {
+        GZIP("gzip"), DEFLATE("deflate");
+
+        private final String token;
+
+        ContentEncoding(String token) {
+            this.token = token;
+        }
+
+        String token() {
+            return token;
+        }
+
+        /**
+         * Picks the encoding an {@code Accept-Encoding} header prefers, gzip on a tie, or null if it
+         * accepts neither. Codings not listed get the weight of {@code *}, if present.
+         */
+        static ContentEncoding negotiate(String acceptEncoding) {
+            if (acceptEncoding == null || acceptEncoding.isBlank()) {
+                return null;
+            }
+            double gzip = -1;
+            double deflate = -1;
+            double any = -1;
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                switch (name) {
+                    case "gzip":
+                    case "x-gzip":
+                        gzip = quality;
+                        break;
+                    case "deflate":
+                        deflate = quality;
+                        break;
+                    case "*":
+                        any = quality;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            gzip = gzip < 0 ? any : gzip;
+            deflate = deflate < 0 ? any : deflate;
+            if (gzip > 0 && gzip >= deflate) {
+                return GZIP;
+            }
+            return deflate > 0 ? DEFLATE : null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.kharkiv.javapracticaltestassignment.config.CompressedUserListCache.ContentEncoding;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers {@code GET /users} from a {@link CompressedUserListCache} when the client accepts gzip or
+ * deflate, JSON is acceptable and a snapshot for the current store version is ready. Every other request,
+ * including projections and CBOR, goes on to the controller as before.
+ */
+@Component
+public class CompressedUserListInterceptor implements HandlerInterceptor, MeterBinder {
+
+    private final UserService userService;
+
+    private final CompressedUserListCache cache;
+
+    private final boolean enabled;
+
+    private final LongAdder served = new LongAdder();
+
+    public CompressedUserListInterceptor(UserService userService, ObjectMapper objectMapper,
+                                         @Value("${compression.enabled}") boolean enabled,
+                                         @Value("${compression.settle-ms}") long settleMs,
+                                         @Value("${compression.min-bytes}") int minBytes,
+                                         @Value("${compression.level}") int level) {
+        this.userService = userService;
+        this.enabled = enabled;
+        this.cache = new CompressedUserListCache(userService, new UserListHttpMessageConverter(objectMapper),
+                settleMs, minBytes, level);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled || !"GET".equals(request.getMethod()) || request.getQueryString() != null) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentEncoding encoding = ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return true;
+        }
+        byte[] body = cache.get(userService.getVersion(), encoding);
+        if (body == null) {
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        served.increment();
+        return false;
+    }
+
+    /**
+     * True if the client takes JSON and does not ask for CBOR, which is left to content negotiation.
+     */
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        boolean json = false;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() <= 0) {
+                continue;
+            }
+            if (MediaType.APPLICATION_CBOR.includes(mediaType)) {
+                return false;
+            }
+            json |= mediaType.includes(MediaType.APPLICATION_JSON);
+        }
+        return json;
+    }
+
+    @PreDestroy
+    void close() {
+        cache.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.list.compressed.served", served, LongAdder::sum)
+                .description("GET /users responses served from a pre-compressed snapshot")
+                .register(registry);
+        FunctionCounter.builder("users.list.compressed.builds", cache, CompressedUserListCache::getBuilds)
+                .description("Pre-compressed snapshots built")
+                .register(registry);
+    }
+}
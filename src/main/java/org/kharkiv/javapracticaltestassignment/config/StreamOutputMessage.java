@@ -0,0 +1,30 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.OutputStream;
+
+/**
+ * Lets message converters write a body into a plain stream outside of a request.
+ */
+final class StreamOutputMessage implements HttpOutputMessage {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    private final OutputStream body;
+
+    StreamOutputMessage(OutputStream body) {
+        this.body = body;
+    }
+
+    @Override
+    public OutputStream getBody() {
+        return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,99 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.kharkiv.javapracticaltestassignment.model.SharedUserList;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes {@code Collection<User>} responses as a JSON array by concatenating each user's cached
+ * {@link User#jsonFragment fragment}, so only users changed since the last read are serialized again.
+ * A {@link SharedUserList} is serialized once and the bytes are reused for every request sharing it.
+ * Write-only; everything else is left to the regular Jackson converter.
+ */
+public class UserListHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<User>> {
+
+    private final ObjectWriter userWriter;
+
+    public UserListHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.userWriter = objectMapper.writerFor(User.class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type == null || !canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType collectionType = ResolvableType.forType(type).asCollection();
+        return collectionType != ResolvableType.NONE && collectionType.resolveGeneric(0) == User.class;
+    }
+
+    @Override
+    protected void writeInternal(Collection<User> users, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (users instanceof SharedUserList sharedUsers) {
+            byte[] serialized = sharedUsers.serialized(this::toJson);
+            if (serialized != null) {
+                outputMessage.getBody().write(serialized);
+                return;
+            }
+        }
+        writeArray(users, outputMessage.getBody());
+    }
+
+    private byte[] toJson(Collection<User> users) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeArray(users, bytes);
+        return bytes.toByteArray();
+    }
+
+    private void writeArray(Collection<User> users, OutputStream body) throws IOException {
+        body.write('[');
+        boolean first = true;
+        for (User user : users) {
+            if (!first) {
+                body.write(',');
+            }
+            body.write(user.jsonFragment(userWriter));
+            first = false;
+        }
+        body.write(']');
+    }
+
+    @Override
+    protected Collection<User> readInternal(Class<? extends Collection<User>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading user lists is not supported", inputMessage);
+    }
+
+    @Override
+    public Collection<User> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading user lists is not supported", inputMessage);
+    }
+}
@@ -0,0 +1,57 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import jakarta.validation.Validator;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.LazyInitTargetSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.validation.MessageInterpolatorFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/**
+ * Takes Hibernate Validator bootstrapping, about a second on a small instance, off the startup path.
+ * <p>
+ * The validator everyone gets injected is a proxy that builds the real {@link LocalValidatorFactoryBean}
+ * on first use. Once the application is ready a background thread validates a {@link User}, so the
+ * factory and the user constraints are usually in place before the first request needs them.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ValidationConfig {
+
+    private static final String VALIDATOR_TARGET = "validatorTarget";
+
+    @Bean(VALIDATOR_TARGET)
+    @Lazy
+    public static LocalValidatorFactoryBean validatorTarget(ApplicationContext applicationContext) {
+        LocalValidatorFactoryBean factoryBean = new LocalValidatorFactoryBean();
+        factoryBean.setMessageInterpolator(new MessageInterpolatorFactory(applicationContext).getObject());
+        return factoryBean;
+    }
+
+    @Bean
+    @Primary
+    public static Validator defaultValidator(BeanFactory beanFactory) {
+        LazyInitTargetSource targetSource = new LazyInitTargetSource();
+        targetSource.setTargetBeanName(VALIDATOR_TARGET);
+        targetSource.setTargetClass(LocalValidatorFactoryBean.class);
+        targetSource.setBeanFactory(beanFactory);
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetSource(targetSource);
+        proxyFactory.addInterface(Validator.class);
+        proxyFactory.addInterface(SmartValidator.class);
+        return (Validator) proxyFactory.getProxy(ValidationConfig.class.getClassLoader());
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> validatorWarmup(Validator validator) {
+        return event -> Thread.ofPlatform().name("validator-warmup").daemon().start(() -> validator.validate(new User()));
+    }
+}
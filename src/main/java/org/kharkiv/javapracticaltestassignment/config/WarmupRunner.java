@@ -0,0 +1,154 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.kharkiv.javapracticaltestassignment.controller.UserController;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.service.ReadCoalescer;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optionally runs synthetic traffic before the application reports itself ready, so the JIT has
+ * compiled the hot paths by the time a load balancer sends real requests.
+ * <p>
+ * With {@code warmup.enabled=true} the runner drives a {@link UserController} backed by a
+ * {@link UserService#newScratchInstance() scratch service}: JSON request bodies are parsed and
+ * validated, users are created, patched, replaced and deleted, and list and range reads are written
+ * through {@link UserListHttpMessageConverter}. The real store is never touched. It stops after
+ * {@code warmup.iterations} rounds or {@code warmup.duration-ms}, whichever comes first.
+ * <p>
+ * Readiness is held at {@link ReadinessState#REFUSING_TRAFFIC} meanwhile; Spring Boot switches it to
+ * accepting once all runners are done. Liveness is unaffected.
+ */
+@Slf4j
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final int POOL_SIZE = 512;
+
+    private static final int READ_EVERY = 16;
+
+    private static final Type USER_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, User.class).getType();
+
+    private static final TypeReference<Map<String, String>> UPDATES_TYPE = new TypeReference<>() {
+    };
+
+    private final ApplicationContext applicationContext;
+
+    private final UserService userService;
+
+    private final ObjectMapper objectMapper;
+
+    private final SmartValidator validator;
+
+    @Value("${warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations}")
+    private int iterations;
+
+    @Value("${warmup.duration-ms}")
+    private long durationMs;
+
+    public WarmupRunner(ApplicationContext applicationContext, UserService userService,
+                        ObjectMapper objectMapper, SmartValidator validator) {
+        this.applicationContext = applicationContext;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+        long deadline = start + durationMs * 1_000_000;
+        UserService scratch = userService.newScratchInstance();
+        int completed = 0;
+        try {
+            UserController controller = new UserController(scratch, new ReadCoalescer(0, 16, Integer.MAX_VALUE, Long.MAX_VALUE));
+            UserListHttpMessageConverter listConverter = new UserListHttpMessageConverter(objectMapper);
+            while (completed < iterations && System.nanoTime() - deadline < 0) {
+                round(completed, controller, listConverter);
+                completed++;
+            }
+        } finally {
+            scratch.shutdown();
+        }
+        log.info("Warm-up ran {} rounds in {} ms", completed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void round(int i, UserController controller, UserListHttpMessageConverter listConverter) throws IOException {
+        String email = email(i);
+        LocalDate birthDate = LocalDate.of(1950 + i % 50, 1 + i % 12, 1 + i % 28);
+        User created = readUser(User.builder()
+                .email(email)
+                .firstName("Warm")
+                .lastName("Up")
+                .birthDate(birthDate)
+                .address("Warm-up street " + i)
+                .phoneNumber("+380" + (1_000_000 + i % POOL_SIZE))
+                .build());
+        controller.createUser(created, validate(created));
+
+        byte[] patch = objectMapper.writeValueAsBytes(Map.of("firstName", "Patched" + i));
+        controller.updateUser(email, objectMapper.readValue(patch, UPDATES_TYPE), null);
+
+        User replaced = readUser(created.toBuilder().lastName("Replaced" + i).build());
+        controller.updateUserByEmail(replaced, validate(replaced), email, null);
+        objectMapper.writeValueAsBytes(controller.getUser(email).getBody());
+
+        if (i % READ_EVERY == 0) {
+            write(listConverter, controller.getUsersByBirthDateRange(birthDate.minusYears(5), birthDate.plusYears(5)));
+            write(listConverter, controller.getAllUsers());
+            objectMapper.writeValueAsBytes(controller.getAllUsers("email,birthDate"));
+            objectMapper.writeValueAsBytes(controller.getUsersByPhoneNumber(created.getPhoneNumber()));
+            controller.countUsersByBirthDateRange(birthDate.minusYears(5), birthDate.plusYears(5));
+        }
+        if (i >= POOL_SIZE) {
+            controller.delete(email(i - POOL_SIZE));
+        }
+    }
+
+    private User readUser(User user) throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(user), User.class);
+    }
+
+    private Errors validate(User user) {
+        Errors errors = new BeanPropertyBindingResult(user, "user");
+        validator.validate(user, errors);
+        return errors;
+    }
+
+    private static void write(UserListHttpMessageConverter converter, Collection<User> users) throws IOException {
+        converter.write(users, USER_LIST_TYPE, MediaType.APPLICATION_JSON, new StreamOutputMessage(OutputStream.nullOutputStream()));
+    }
+
+    private static String email(int i) {
+        return "warmup" + i + "@example.com";
+    }
+}
@@ -0,0 +1,75 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    private final ObjectProvider<ObjectMapper> objectMapper;
+
+    private final ObjectProvider<AdmissionControlInterceptor> admissionControlInterceptor;
+
+    private final ObjectProvider<CompressedUserListInterceptor> compressedUserListInterceptor;
+
+    public WebConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder,
+                     ObjectProvider<ObjectMapper> objectMapper,
+                     ObjectProvider<AdmissionControlInterceptor> admissionControlInterceptor,
+                     ObjectProvider<CompressedUserListInterceptor> compressedUserListInterceptor) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.objectMapper = objectMapper;
+        this.admissionControlInterceptor = admissionControlInterceptor;
+        this.compressedUserListInterceptor = compressedUserListInterceptor;
+    }
+
+    /**
+     * Puts {@code /users} requests, except bulk import and export, behind admission control. Full lists
+     * served from a pre-compressed snapshot cost next to nothing and are answered before it.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        compressedUserListInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/users"));
+        admissionControlInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/users", "/users/**")
+                .excludePathPatterns("/users/import", "/users/export"));
+    }
+
+    /**
+     * Offers {@code application/cbor} next to JSON for request and response bodies. JSON stays first,
+     * so clients that do not ask for CBOR are unaffected. Dates go out as numeric arrays, which is
+     * smaller than ISO text in CBOR; both forms are accepted on input.
+     * <p>
+     * User lists rendered as JSON go through {@link UserListHttpMessageConverter} ahead of the
+     * regular Jackson converter. The CBOR converter replaces Spring's default one in place, which would
+     * otherwise be picked first and ignore the application's Jackson settings.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new UserListHttpMessageConverter(objectMapper.getIfAvailable(ObjectMapper::new)));
+        Jackson2ObjectMapperBuilder builder = objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::cbor);
+        MappingJackson2CborHttpMessageConverter cborConverter = new MappingJackson2CborHttpMessageConverter(builder
+                .factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.set(i, cborConverter);
+                return;
+            }
+        }
+        converters.add(cborConverter);
+    }
+}
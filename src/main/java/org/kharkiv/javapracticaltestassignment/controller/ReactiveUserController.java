@@ -0,0 +1,74 @@
+package org.kharkiv.javapracticaltestassignment.controller;
+
+import jakarta.validation.Valid;
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.service.ReactiveUserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Reactive variant of {@link UserController}. List endpoints stream users as NDJSON with backpressure,
+ * clients asking for plain JSON still get a single array.
+ */
+@RestController
+@RequestMapping("/reactive/users")
+public class ReactiveUserController {
+
+    private final ReactiveUserService reactiveUserService;
+
+    public ReactiveUserController(ReactiveUserService reactiveUserService) {
+        this.reactiveUserService = reactiveUserService;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<User> getAllUsers() {
+        return reactiveUserService.getAllUsers();
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    public Mono<Void> createUser(@Valid @RequestBody User user, Errors errors) {
+        if (!errors.hasErrors()) {
+            return reactiveUserService.create(user);
+        } else
+            throw new UserIllegalArgumentException(errors);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PatchMapping("/{email}")
+    public Mono<Void> updateUser(@PathVariable String email, @RequestBody Map<String, String> updates) {
+        return reactiveUserService.updateUser(email, updates);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PutMapping("/{email}")
+    public Mono<Void> updateUserByEmail(@Valid @RequestBody User user, Errors errors, @PathVariable String email) {
+        if (!errors.hasErrors()) {
+            return reactiveUserService.updateUserByEmail(email, user);
+        } else
+            throw new UserIllegalArgumentException(errors);
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{email}")
+    public Mono<Void> delete(@PathVariable String email) {
+        return reactiveUserService.delete(email);
+    }
+
+    @GetMapping(value = "/", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<User> getUsersByBirthDateRange(
+            @RequestParam("fromDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam("toDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+        return reactiveUserService.getUsersByBirthDateRange(fromDate, toDate);
+    }
+}
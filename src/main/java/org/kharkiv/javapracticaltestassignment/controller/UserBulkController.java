@@ -0,0 +1,40 @@
+package org.kharkiv.javapracticaltestassignment.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.kharkiv.javapracticaltestassignment.model.ImportResult;
+import org.kharkiv.javapracticaltestassignment.service.BulkFormat;
+import org.kharkiv.javapracticaltestassignment.service.UserExportService;
+import org.kharkiv.javapracticaltestassignment.service.UserImportService;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+@RestController
+@RequestMapping("/users")
+public class UserBulkController {
+
+    private final UserImportService userImportService;
+
+    private final UserExportService userExportService;
+
+    public UserBulkController(UserImportService userImportService, UserExportService userExportService) {
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ImportResult importUsers(HttpServletRequest request) throws IOException {
+        BulkFormat format = BulkFormat.fromName(request.getContentType().split(";")[0].trim());
+        return userImportService.importUsers(Channels.newChannel(request.getInputStream()), format);
+    }
+
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        BulkFormat bulkFormat = BulkFormat.fromName(format);
+        response.setContentType(bulkFormat.mediaType());
+        userExportService.export(bulkFormat, Channels.newChannel(response.getOutputStream()));
+    }
+}
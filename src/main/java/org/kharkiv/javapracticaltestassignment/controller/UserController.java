@@ -2,10 +2,18 @@ package org.kharkiv.javapracticaltestassignment.controller;
 
 import jakarta.validation.Valid;
 import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.kharkiv.javapracticaltestassignment.exception.UserPreconditionFailedException;
+import org.kharkiv.javapracticaltestassignment.model.ProjectedUsers;
 import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.model.UserProjection;
+import org.kharkiv.javapracticaltestassignment.model.VersionedUser;
+import org.kharkiv.javapracticaltestassignment.service.ReadCoalescer;
 import org.kharkiv.javapracticaltestassignment.service.UserService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,13 +27,21 @@ public class UserController {
 
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    private final ReadCoalescer readCoalescer;
+
+    public UserController(UserService userService, ReadCoalescer readCoalescer) {
         this.userService = userService;
+        this.readCoalescer = readCoalescer;
     }
 
     @GetMapping
     public List<User> getAllUsers() {
-        return userService.getAllUsers();
+        return readCoalescer.users(List.of("all", userService.getVersion()), userService::getAllUsers);
+    }
+
+    @GetMapping(params = "fields")
+    public ProjectedUsers getAllUsers(@RequestParam("fields") String fields) {
+        return new ProjectedUsers(userService.getAllUsers(), UserProjection.of(fields));
     }
 
     @ResponseStatus(HttpStatus.CREATED)
@@ -37,17 +53,29 @@ public class UserController {
             throw new UserIllegalArgumentException(errors);
     }
 
-    @ResponseStatus(HttpStatus.NO_CONTENT)
+    /**
+     * Returns the user with its version as the ETag, to be sent back in {@code If-Match} on updates.
+     */
+    @GetMapping("/{email}")
+    public ResponseEntity<User> getUser(@PathVariable String email) {
+        VersionedUser versionedUser = userService.findVersionedUser(email)
+                .orElseThrow(() -> new UserNotFoundException("User with email " + email + " not found"));
+        return ResponseEntity.ok().eTag(eTag(versionedUser.version())).body(versionedUser.user());
+    }
+
     @PatchMapping("/{email}")
-    public void updateUser(@PathVariable String email, @RequestBody Map<String, String> updates) {
-        userService.updateUser(email, updates);
+    public ResponseEntity<Void> updateUser(@PathVariable String email, @RequestBody Map<String, String> updates,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = userService.updateUser(email, updates, expectedVersion(ifMatch));
+        return ResponseEntity.noContent().eTag(eTag(version)).build();
     }
 
-    @ResponseStatus(HttpStatus.NO_CONTENT)
     @PutMapping("/{email}")
-    public void updateUserByEmail(@Valid @RequestBody User user, Errors errors, @PathVariable String email) {
+    public ResponseEntity<Void> updateUserByEmail(@Valid @RequestBody User user, Errors errors, @PathVariable String email,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (!errors.hasErrors()) {
-            userService.updateUserByEmail(email, user);
+            long version = userService.updateUserByEmail(email, user, expectedVersion(ifMatch));
+            return ResponseEntity.noContent().eTag(eTag(version)).build();
         } else
             throw new UserIllegalArgumentException(errors);
     }
@@ -63,6 +91,58 @@ public class UserController {
             @RequestParam("fromDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam("toDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
 
-        return userService.getUsersByBirthDateRange(fromDate, toDate);
+        return readCoalescer.users(List.of("range", fromDate, toDate, userService.getVersion()),
+                () -> userService.getUsersByBirthDateRange(fromDate, toDate));
+    }
+
+    @GetMapping(value = "/", params = "fields")
+    public ProjectedUsers getUsersByBirthDateRange(
+            @RequestParam("fromDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam("toDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam("fields") String fields) {
+
+        UserProjection projection = UserProjection.of(fields);
+        return new ProjectedUsers(userService.getUsersByBirthDateRange(fromDate, toDate), projection);
+    }
+
+    @GetMapping("/count")
+    public long countUsersByBirthDateRange(
+            @RequestParam("fromDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam("toDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+        return userService.countUsersByBirthDateRange(fromDate, toDate);
+    }
+
+    @GetMapping("/histogram")
+    public Map<Integer, Long> getBirthYearHistogram() {
+        return userService.getBirthYearHistogram();
+    }
+
+    @GetMapping("/by-phone/{phone}")
+    public List<User> getUsersByPhoneNumber(@PathVariable String phone) {
+        return userService.findUsersByPhoneNumber(phone);
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version an {@code If-Match} header asks for, or null without one or for {@code *}. If-Match
+     * compares strongly, so a weak or unknown tag can never match and fails the precondition.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        throw new UserPreconditionFailedException("If-Match " + tag + " does not match the current version");
     }
 }
@@ -1,5 +1,7 @@
 package org.kharkiv.javapracticaltestassignment.exception;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -32,6 +34,34 @@ public class UserExceptionHandler {
         return new ResponseEntity<>(userException, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = {UserPreconditionFailedException.class})
+    public ResponseEntity<Object> handleUserPreconditionFailedException(UserPreconditionFailedException userPreconditionFailedException) {
+        UserException userException = new UserException(userPreconditionFailedException.getMessage(),
+                userPreconditionFailedException.getCause(),
+                HttpStatus.PRECONDITION_FAILED);
+        return new ResponseEntity<>(userException, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(value = {UserReadOnlyException.class})
+    public ResponseEntity<Object> handleUserReadOnlyException(UserReadOnlyException userReadOnlyException) {
+        UserException userException = new UserException(userReadOnlyException.getMessage(),
+                userReadOnlyException.getCause(),
+                HttpStatus.METHOD_NOT_ALLOWED);
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                .allow(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS)
+                .body(userException);
+    }
+
+    @ExceptionHandler(value = {UserOverloadedException.class})
+    public ResponseEntity<Object> handleUserOverloadedException(UserOverloadedException userOverloadedException) {
+        UserException userException = new UserException(userOverloadedException.getMessage(),
+                userOverloadedException.getCause(),
+                HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(userOverloadedException.getRetryAfterSeconds()))
+                .body(userException);
+    }
+
     @ExceptionHandler(value = {Exception.class})
     public ResponseEntity<Object> handleException(Exception exception) {
         String errorMessage = "An unexpected error occurred";
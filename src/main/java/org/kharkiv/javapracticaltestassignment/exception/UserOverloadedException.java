@@ -0,0 +1,14 @@
+package org.kharkiv.javapracticaltestassignment.exception;
+
+import lombok.Getter;
+
+@Getter
+public class UserOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UserOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,8 @@
+package org.kharkiv.javapracticaltestassignment.exception;
+
+public class UserPreconditionFailedException extends RuntimeException {
+
+    public UserPreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.kharkiv.javapracticaltestassignment.exception;
+
+public class UserReadOnlyException extends RuntimeException {
+
+    public UserReadOnlyException(String message) {
+        super(message);
+    }
+}
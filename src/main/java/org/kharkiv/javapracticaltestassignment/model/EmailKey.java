@@ -0,0 +1,101 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Canonical email used as the key of every user index.
+ * <p>
+ * The domain after the last '@' is lower-cased, since it is case-insensitive, while the local part is kept
+ * as is. The canonical form is stored as UTF-8 bytes with a 64-bit hash computed once, so equal keys are
+ * found by comparing a long before any bytes.
+ */
+public final class EmailKey {
+
+    private final byte[] bytes;
+
+    private final long hash;
+
+    private EmailKey(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = hash(bytes);
+    }
+
+    /**
+     * Returns the canonical key of {@code email}, or null for a null email.
+     */
+    public static EmailKey of(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        String canonical = at < 0 ? email : email.substring(0, at + 1) + email.substring(at + 1).toLowerCase(Locale.ROOT);
+        return new EmailKey(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long hash64() {
+        return hash;
+    }
+
+    /**
+     * Whether {@code email} has this canonical form. ASCII emails, the usual case, are compared
+     * character by character without building a key.
+     */
+    public boolean matches(String email) {
+        if (email == null) {
+            return false;
+        }
+        int at = email.lastIndexOf('@');
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80) {
+                return equals(of(email));
+            }
+            if (i >= bytes.length) {
+                return false;
+            }
+            if (i > at && c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (bytes[i] != c) {
+                return false;
+            }
+        }
+        return email.length() == bytes.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof EmailKey other && hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * FNV-1a over the bytes followed by the MurmurHash3 finalizer, so every output bit depends on every input byte.
+     */
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
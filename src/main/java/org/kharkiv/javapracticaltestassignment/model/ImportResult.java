@@ -0,0 +1,5 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import java.util.List;
+
+public record ImportResult(long imported, long rejected, List<String> errors) {}
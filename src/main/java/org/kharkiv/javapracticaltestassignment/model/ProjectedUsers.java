@@ -0,0 +1,30 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Users rendered through a {@link UserProjection}. Serializes itself, so Jackson skips bean
+ * introspection entirely and any configured format (JSON, CBOR) can be produced.
+ */
+public record ProjectedUsers(Collection<User> users, UserProjection projection) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartArray();
+        for (User user : users) {
+            projection.write(generator, serializers, user);
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
@@ -0,0 +1,98 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable result of a read query handed to every request that asked for it at the same time.
+ * The first request that serializes it stores the bytes for the others, unless they exceed {@code maxSerializedBytes}
+ * or the {@link ByteBudget} shared with other lists is used up.
+ */
+public class SharedUserList extends AbstractList<User> {
+
+    private final List<User> users;
+
+    private final int maxSerializedBytes;
+
+    private final ByteBudget budget;
+
+    private byte[] serialized;
+
+    private boolean notKept;
+
+    public SharedUserList(Collection<User> users, int maxSerializedBytes) {
+        this(users, maxSerializedBytes, ByteBudget.UNLIMITED);
+    }
+
+    public SharedUserList(Collection<User> users, int maxSerializedBytes, ByteBudget budget) {
+        this.users = new ArrayList<>(users);
+        this.maxSerializedBytes = maxSerializedBytes;
+        this.budget = budget;
+    }
+
+    @Override
+    public User get(int index) {
+        return users.get(index);
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * Returns the bytes {@code serializer} produced for the first caller, or null if they could not be
+     * kept, in which case callers write the list themselves.
+     */
+    public synchronized byte[] serialized(Serializer serializer) throws IOException {
+        if (serialized == null && !notKept) {
+            byte[] bytes = serializer.serialize(users);
+            notKept = true;
+            if (bytes.length > maxSerializedBytes || !budget.tryReserve(bytes.length)) {
+                return bytes;
+            }
+            serialized = bytes;
+        }
+        return serialized;
+    }
+
+    /**
+     * Drops the stored bytes and returns them to the budget; later callers write the list themselves.
+     */
+    public synchronized void release() {
+        notKept = true;
+        if (serialized != null) {
+            budget.release(serialized.length);
+            serialized = null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Serializer {
+        byte[] serialize(List<User> users) throws IOException;
+    }
+
+    /**
+     * Bytes that the serialized forms of several lists may hold together.
+     */
+    public interface ByteBudget {
+
+        ByteBudget UNLIMITED = new ByteBudget() {
+            @Override
+            public boolean tryReserve(int bytes) {
+                return true;
+            }
+
+            @Override
+            public void release(int bytes) {
+            }
+        };
+
+        boolean tryReserve(int bytes);
+
+        void release(int bytes);
+    }
+}
@@ -1,15 +1,18 @@
 package org.kharkiv.javapracticaltestassignment.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicStampedReference;
 
 @Getter
-@Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User {
 
     @NotEmpty(message = "Email can not be empty")
@@ -29,5 +32,63 @@ public class User {
     @Pattern(regexp = "\\+?[0-9]+", message = "Phone number must contain only digits and may start with '+'")
     private String phoneNumber;
 
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final transient AtomicStampedReference<byte[]> jsonFragment = new AtomicStampedReference<>(null, 0);
+
+    /**
+     * Returns this user serialized by {@code writer}, building and caching it on first use.
+     * A fragment built while the user was being modified is discarded instead of cached.
+     */
+    public byte[] jsonFragment(ObjectWriter writer) throws JsonProcessingException {
+        int[] stamp = new int[1];
+        byte[] fragment = jsonFragment.get(stamp);
+        if (fragment == null) {
+            fragment = writer.writeValueAsBytes(this);
+            jsonFragment.compareAndSet(null, fragment, stamp[0], stamp[0]);
+        }
+        return fragment;
+    }
+
+    /**
+     * Drops the cached fragment. Every setter calls this, so a cached fragment never outlives a change.
+     */
+    public void invalidateJsonFragment() {
+        int[] stamp = new int[1];
+        byte[] fragment;
+        do {
+            fragment = jsonFragment.get(stamp);
+        } while (!jsonFragment.compareAndSet(fragment, null, stamp[0], stamp[0] + 1));
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        invalidateJsonFragment();
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+        invalidateJsonFragment();
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+        invalidateJsonFragment();
+    }
+
+    public void setBirthDate(LocalDate birthDate) {
+        this.birthDate = birthDate;
+        invalidateJsonFragment();
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+        invalidateJsonFragment();
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+        invalidateJsonFragment();
+    }
 
 }
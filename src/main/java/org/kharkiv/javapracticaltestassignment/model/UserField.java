@@ -0,0 +1,38 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import java.util.function.Function;
+
+public enum UserField {
+    EMAIL("email", User::getEmail),
+    FIRST_NAME("firstName", User::getFirstName),
+    LAST_NAME("lastName", User::getLastName),
+    BIRTH_DATE("birthDate", User::getBirthDate),
+    ADDRESS("address", User::getAddress),
+    PHONE_NUMBER("phoneNumber", User::getPhoneNumber);
+
+    private final String jsonName;
+
+    private final Function<User, Object> accessor;
+
+    UserField(String jsonName, Function<User, Object> accessor) {
+        this.jsonName = jsonName;
+        this.accessor = accessor;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public Object valueOf(User user) {
+        return accessor.apply(user);
+    }
+
+    public static UserField fromJsonName(String jsonName) {
+        for (UserField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
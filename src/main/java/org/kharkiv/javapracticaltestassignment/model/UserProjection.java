@@ -0,0 +1,81 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Writer for a fixed subset of {@link UserField}s. Field names are pre-encoded and the field list is
+ * resolved once, so writing a user is a straight sequence of generator calls. Text fields are written
+ * directly; the birth date goes through the mapper's own serializer, so a projection renders it exactly
+ * like the full user in the same format. Instances are cached per field set; there are at most 2^6 of them.
+ */
+public final class UserProjection {
+
+    private static final AtomicReferenceArray<UserProjection> CACHE =
+            new AtomicReferenceArray<>(1 << UserField.values().length);
+
+    private final UserField[] fields;
+
+    private final SerializedString[] names;
+
+    private UserProjection(int mask) {
+        this.fields = new UserField[Integer.bitCount(mask)];
+        this.names = new SerializedString[fields.length];
+        int i = 0;
+        for (UserField field : UserField.values()) {
+            if ((mask & (1 << field.ordinal())) != 0) {
+                fields[i] = field;
+                names[i] = new SerializedString(field.jsonName());
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Resolves a comma separated list of field names such as {@code email,firstName}.
+     * Order and duplicates do not matter; fields are always written in declaration order.
+     */
+    public static UserProjection of(String fieldNames) {
+        int mask = 0;
+        for (String name : fieldNames.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            UserField field = UserField.fromJsonName(trimmed);
+            if (field == null) {
+                throw new UserIllegalArgumentException("Invalid field name: " + trimmed);
+            }
+            mask |= 1 << field.ordinal();
+        }
+        if (mask == 0) {
+            throw new UserIllegalArgumentException("At least one field must be requested");
+        }
+
+        UserProjection projection = CACHE.get(mask);
+        if (projection == null) {
+            CACHE.compareAndSet(mask, null, new UserProjection(mask));
+            projection = CACHE.get(mask);
+        }
+        return projection;
+    }
+
+    public void write(JsonGenerator generator, SerializerProvider serializers, User user) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < fields.length; i++) {
+            generator.writeFieldName(names[i]);
+            Object value = fields[i].valueOf(user);
+            if (value instanceof String text) {
+                generator.writeString(text);
+            } else {
+                serializers.defaultSerializeValue(value, generator);
+            }
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,7 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+/**
+ * A user together with the version it was read at, which is sent as its entity tag.
+ */
+public record VersionedUser(User user, long version) {
+}
@@ -0,0 +1,65 @@
+package org.kharkiv.javapracticaltestassignment.profiling;
+
+import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Actuator endpoint for {@link ProfilingService}: {@code GET /actuator/jfr} lists the recordings,
+ * {@code POST} starts an on-demand one, {@code DELETE} stops it and {@code GET /actuator/jfr/recording}
+ * downloads a dump.
+ * <p>
+ * Like every actuator endpoint it is only reachable once listed in
+ * {@code management.endpoints.web.exposure.include}, and with {@code management.server.port} set it is
+ * served on the management port rather than next to the users API. Errors are reported by
+ * {@code UserExceptionHandler} as on the users API.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class ProfilingEndpoint {
+
+    private static final long DEFAULT_DURATION_SECONDS = 60;
+
+    private static final String RECORDING = "recording";
+
+    private final ProfilingService profilingService;
+
+    public ProfilingEndpoint(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    @ReadOperation
+    public List<RecordingStatus> status() {
+        return profilingService.status();
+    }
+
+    @WriteOperation
+    public RecordingStatus start(@Nullable Long durationSeconds) throws IOException, ParseException {
+        return profilingService.start(durationSeconds == null ? DEFAULT_DURATION_SECONDS : durationSeconds);
+    }
+
+    @DeleteOperation
+    public RecordingStatus stop() {
+        return profilingService.stop();
+    }
+
+    @ReadOperation(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Resource download(@Selector String name) throws IOException {
+        if (!RECORDING.equals(name)) {
+            throw new UserNotFoundException("Unknown recording " + name + ", expected " + RECORDING);
+        }
+        return new InputStreamResource(profilingService.dump());
+    }
+}
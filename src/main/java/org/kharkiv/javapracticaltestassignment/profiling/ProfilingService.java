@@ -0,0 +1,170 @@
+package org.kharkiv.javapracticaltestassignment.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.kharkiv.javapracticaltestassignment.exception.UserBadRequestException;
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manages Flight Recorder recordings of {@link UserOperationEvent}s.
+ * <p>
+ * With {@code jfr.always-on=true} a continuous recording keeps operations slower than
+ * {@code jfr.threshold-ms} for {@code jfr.max-age-seconds}. On demand, a recording with the JDK's
+ * {@code profile} settings plus every user operation runs for at most {@code jfr.max-duration-seconds}.
+ * Both are capped at {@code jfr.max-size-mb} on disk. The on-demand recording leaves out the events that
+ * capture environment variables, system properties and JVM arguments, which may hold credentials.
+ * <p>
+ * Starting Flight Recorder takes seconds on a small instance, so the always-on recording is started
+ * in the background once the application is ready.
+ */
+@Slf4j
+@Service
+public class ProfilingService {
+
+    private static final String ALWAYS_ON = "users-always-on";
+
+    private static final String ON_DEMAND = "users-on-demand";
+
+    private static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    @Value("${jfr.always-on}")
+    private boolean alwaysOnEnabled;
+
+    @Value("${jfr.threshold-ms}")
+    private long thresholdMs;
+
+    @Value("${jfr.max-age-seconds}")
+    private long maxAgeSeconds;
+
+    @Value("${jfr.max-duration-seconds}")
+    private long maxDurationSeconds;
+
+    @Value("${jfr.max-size-mb}")
+    private long maxSizeMb;
+
+    @Value("${jfr.dump-dir}")
+    private Path dumpDir;
+
+    private Recording alwaysOn;
+
+    private Recording onDemand;
+
+    private boolean closed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void startAlwaysOnInBackground() {
+        if (alwaysOnEnabled) {
+            Thread.ofPlatform().name("jfr-always-on").daemon().start(this::startAlwaysOn);
+        }
+    }
+
+    synchronized void startAlwaysOn() {
+        if (alwaysOn != null || closed) {
+            return;
+        }
+        alwaysOn = new Recording();
+        alwaysOn.setName(ALWAYS_ON);
+        alwaysOn.enable(UserOperationEvent.NAME).withThreshold(Duration.ofMillis(thresholdMs));
+        alwaysOn.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+        alwaysOn.setMaxSize(maxSizeMb << 20);
+        alwaysOn.setToDisk(true);
+        alwaysOn.start();
+        log.info("Recording user operations slower than {} ms", thresholdMs);
+    }
+
+    public synchronized RecordingStatus start(long durationSeconds) throws IOException, ParseException {
+        if (durationSeconds <= 0 || durationSeconds > maxDurationSeconds) {
+            throw new UserIllegalArgumentException("Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            throw new UserBadRequestException("A recording is already running");
+        }
+        if (onDemand != null) {
+            onDemand.close();
+        }
+        onDemand = new Recording(Configuration.getConfiguration("profile"));
+        onDemand.setName(ON_DEMAND);
+        for (String event : SENSITIVE_EVENTS) {
+            onDemand.disable(event);
+        }
+        onDemand.enable(UserOperationEvent.NAME).withoutThreshold();
+        onDemand.setDuration(Duration.ofSeconds(durationSeconds));
+        onDemand.setMaxSize(maxSizeMb << 20);
+        onDemand.setToDisk(true);
+        onDemand.start();
+        return status(onDemand);
+    }
+
+    public synchronized RecordingStatus stop() {
+        if (onDemand == null || onDemand.getState() != RecordingState.RUNNING) {
+            throw new UserNotFoundException("No recording is running");
+        }
+        onDemand.stop();
+        return status(onDemand);
+    }
+
+    /**
+     * Dumps the on-demand recording, or the always-on one if none was started, to a new file in
+     * {@code jfr.dump-dir} and opens it. The file is deleted when the returned stream is closed.
+     */
+    public synchronized InputStream dump() throws IOException {
+        Recording recording = onDemand != null ? onDemand : alwaysOn;
+        if (recording == null) {
+            throw new UserNotFoundException("No recording available");
+        }
+        Path file = Files.createTempFile(dumpDir, "users-", ".jfr");
+        try {
+            recording.dump(file);
+            return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public synchronized List<RecordingStatus> status() {
+        List<RecordingStatus> statuses = new ArrayList<>();
+        if (alwaysOn != null) {
+            statuses.add(status(alwaysOn));
+        }
+        if (onDemand != null) {
+            statuses.add(status(onDemand));
+        }
+        return statuses;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        closed = true;
+        if (onDemand != null) {
+            onDemand.close();
+        }
+        if (alwaysOn != null) {
+            alwaysOn.close();
+        }
+    }
+
+    private static RecordingStatus status(Recording recording) {
+        return new RecordingStatus(recording.getName(), recording.getState().name(), recording.getStartTime(),
+                recording.getSize());
+    }
+}
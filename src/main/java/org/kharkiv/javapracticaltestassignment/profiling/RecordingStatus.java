@@ -0,0 +1,5 @@
+package org.kharkiv.javapracticaltestassignment.profiling;
+
+import java.time.Instant;
+
+public record RecordingStatus(String name, String state, Instant startTime, long sizeBytes) {}
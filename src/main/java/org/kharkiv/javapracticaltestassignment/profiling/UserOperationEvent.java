@@ -0,0 +1,144 @@
+package org.kharkiv.javapracticaltestassignment.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Flight Recorder event for one {@code UserService} operation. Costs a flag check while no recording
+ * enables it; with a threshold set only operations at least that slow are committed.
+ * <p>
+ * Emails and phone numbers are recorded as a salted SHA-256 prefix; date ranges carry nothing personal
+ * and are recorded as they are. The salt is picked per JVM: events of one run can be grouped by key, but
+ * a recording does not reveal the emails and phone numbers.
+ */
+@Name(UserOperationEvent.NAME)
+@Label("User Operation")
+@Category("Users")
+@Description("A UserService operation with its key, result size and failure")
+@StackTrace(false)
+public class UserOperationEvent extends Event {
+
+    public static final String NAME = "org.kharkiv.users.UserOperation";
+
+    private static final byte[] SALT = salt();
+
+    private static final int HASH_BYTES = 8;
+
+    private static final Pattern PHONE_NUMBER = Pattern.compile("\\+?[0-9]+");
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    @Description("Date range, or salted SHA-256 prefix of the email or phone number")
+    String key;
+
+    @Label("Result Size")
+    long resultSize;
+
+    @Label("Failure")
+    String failure;
+
+    /**
+     * Runs {@code body} as operation {@code operation} on {@code key}, recording its duration,
+     * result size or the type of the exception it threw.
+     */
+    public static <T> T record(String operation, String key, Supplier<T> body, ToLongFunction<? super T> resultSize) {
+        UserOperationEvent event = new UserOperationEvent();
+        if (!event.isEnabled()) {
+            return body.get();
+        }
+        event.begin();
+        try {
+            T result = body.get();
+            event.resultSize = resultSize.applyAsLong(result);
+            return result;
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit(operation, key);
+        }
+    }
+
+    /**
+     * Like {@link #record}, but the operation lasts until the returned future completes.
+     */
+    public static <T> CompletableFuture<T> recordAsync(String operation, String key, Supplier<CompletableFuture<T>> body) {
+        UserOperationEvent event = new UserOperationEvent();
+        if (!event.isEnabled()) {
+            return body.get();
+        }
+        event.begin();
+        CompletableFuture<T> future;
+        try {
+            future = body.get();
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getSimpleName();
+            event.commit(operation, key);
+            throw e;
+        }
+        return future.whenComplete((result, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                event.failure = cause.getClass().getSimpleName();
+            } else {
+                event.resultSize = 1;
+            }
+            event.commit(operation, key);
+        });
+    }
+
+    private void commit(String operation, String key) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.key = redact(key);
+            commit();
+        }
+    }
+
+    private static byte[] salt() {
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return salt;
+    }
+
+    /**
+     * Hashes emails and phone numbers and leaves other keys, such as date ranges, readable.
+     */
+    static String redact(String key) {
+        if (key == null || (key.indexOf('@') < 0 && !PHONE_NUMBER.matcher(key).matches())) {
+            return key;
+        }
+        return hash(key);
+    }
+
+    static String hash(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(SALT);
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+/**
+ * A single entry of the replication log. {@code email} is the key the mutation was applied to,
+ * {@code user} is the full state after the mutation (null for deletes), so followers can apply
+ * entries without re-running validation.
+ */
+public record Mutation(long sequence, long timestamp, MutationType type, String email, User user) {}
@@ -0,0 +1,7 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+public enum MutationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
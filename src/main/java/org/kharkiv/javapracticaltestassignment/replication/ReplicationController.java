@@ -0,0 +1,47 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/replication")
+public class ReplicationController {
+
+    private final UserService userService;
+
+    private final ReplicationLog replicationLog;
+
+    private final ObjectProvider<ReplicationFollower> follower;
+
+    public ReplicationController(UserService userService, ReplicationLog replicationLog,
+                                 ObjectProvider<ReplicationFollower> follower) {
+        this.userService = userService;
+        this.replicationLog = replicationLog;
+        this.follower = follower;
+    }
+
+    @GetMapping("/snapshot")
+    public ReplicationSnapshot getSnapshot() {
+        return userService.snapshot();
+    }
+
+    @GetMapping("/log")
+    public ReplicationLogBatch getLog(@RequestParam("after") long after,
+                                      @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return replicationLog.readAfter(after, limit);
+    }
+
+    @GetMapping("/status")
+    public ReplicationStatus getStatus() {
+        ReplicationFollower replicationFollower = follower.getIfAvailable();
+        if (replicationFollower != null) {
+            return replicationFollower.status();
+        }
+        long sequence = replicationLog.lastSequence();
+        return new ReplicationStatus("leader", sequence, sequence, 0, 0);
+    }
+}
@@ -0,0 +1,102 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Pulls the leader's mutation log and applies it to the local {@link UserService}.
+ * Starts from a snapshot and falls back to a new one whenever the leader reports the log as truncated
+ * or answers with a different epoch, i.e. it restarted and its sequences no longer match ours.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "replication.role", havingValue = "follower")
+public class ReplicationFollower {
+
+    private final UserService userService;
+
+    private final RestClient restClient;
+
+    @Value("${replication.batch-size}")
+    private int batchSize;
+
+    private volatile String leaderEpoch;
+
+    private volatile long appliedSequence = -1;
+
+    private volatile long leaderSequence;
+
+    private volatile long lastAppliedTimestamp;
+
+    public ReplicationFollower(UserService userService, RestClient.Builder restClientBuilder,
+                               @Value("${replication.leader-url}") String leaderUrl) {
+        this.userService = userService;
+        this.restClient = restClientBuilder.baseUrl(leaderUrl).build();
+    }
+
+    @Scheduled(fixedDelayString = "${replication.poll-interval-ms}")
+    public void poll() {
+        try {
+            if (appliedSequence < 0) {
+                bootstrap();
+            }
+            catchUp();
+        } catch (RestClientException e) {
+            log.warn("Replication from leader failed: {}", e.getMessage());
+        }
+    }
+
+    private void bootstrap() {
+        ReplicationSnapshot snapshot = restClient.get()
+                .uri("/replication/snapshot")
+                .retrieve()
+                .body(ReplicationSnapshot.class);
+        userService.installSnapshot(snapshot.users());
+        leaderEpoch = snapshot.epoch();
+        appliedSequence = snapshot.sequence();
+        leaderSequence = snapshot.sequence();
+        lastAppliedTimestamp = System.currentTimeMillis();
+        log.info("Installed snapshot at sequence {} with {} users", snapshot.sequence(), snapshot.users().size());
+    }
+
+    private void catchUp() {
+        ReplicationLogBatch batch;
+        boolean resync;
+        do {
+            batch = restClient.get()
+                    .uri("/replication/log?after={after}&limit={limit}", appliedSequence, batchSize)
+                    .retrieve()
+                    .body(ReplicationLogBatch.class);
+            leaderSequence = batch.leaderSequence();
+            resync = batch.truncated() || !batch.epoch().equals(leaderEpoch);
+            if (resync) {
+                log.info("Leader log no longer covers sequence {} (epoch {} -> {}), resyncing from snapshot",
+                        appliedSequence, leaderEpoch, batch.epoch());
+                bootstrap();
+                continue;
+            }
+            for (Mutation mutation : batch.mutations()) {
+                userService.applyReplicated(mutation);
+                appliedSequence = mutation.sequence();
+                lastAppliedTimestamp = mutation.timestamp();
+            }
+        } while (appliedSequence < leaderSequence && (resync || !batch.mutations().isEmpty()));
+        if (appliedSequence >= leaderSequence) {
+            lastAppliedTimestamp = System.currentTimeMillis();
+        }
+    }
+
+    public ReplicationStatus status() {
+        long applied = appliedSequence;
+        long leader = leaderSequence;
+        long lagMillis = applied >= leader ? 0 : System.currentTimeMillis() - lastAppliedTimestamp;
+        return new ReplicationStatus("follower", applied, leader, Math.max(0, leader - applied), lagMillis);
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ordered, bounded in-memory log of mutations accepted by the leader. Sequence numbers start at 1;
+ * once the log is full the oldest entries are dropped and followers behind them resync from a snapshot.
+ * <p>
+ * Entries live in a ring indexed by sequence, so a follower poll copies only the mutations it gets
+ * instead of walking the whole log while appends wait.
+ * <p>
+ * Sequences restart at 1 with the process, so every batch and snapshot carries the {@link #epoch()} of
+ * this log instance; a follower that sees a different epoch knows the leader restarted.
+ */
+@Component
+public class ReplicationLog {
+
+    private final String epoch = UUID.randomUUID().toString();
+
+    private final Mutation[] entries;
+
+    private long lastSequence;
+
+    public ReplicationLog(@Value("${replication.log-capacity}") int capacity) {
+        this.entries = new Mutation[capacity];
+    }
+
+    public synchronized Mutation append(MutationType type, String email, User user) {
+        Mutation mutation = new Mutation(++lastSequence, System.currentTimeMillis(), type, email,
+                user == null ? null : user.toBuilder().build());
+        entries[index(mutation.sequence())] = mutation;
+        return mutation;
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized ReplicationLogBatch readAfter(long sequence, int limit) {
+        long firstSequence = Math.max(1, lastSequence - entries.length + 1);
+        if (sequence < firstSequence - 1 || sequence > lastSequence) {
+            return new ReplicationLogBatch(epoch, lastSequence, true, List.of());
+        }
+
+        long to = Math.min(lastSequence, sequence + limit);
+        List<Mutation> mutations = new ArrayList<>((int) Math.max(0, to - sequence));
+        for (long next = sequence + 1; next <= to; next++) {
+            mutations.add(entries[index(next)]);
+        }
+        return new ReplicationLogBatch(epoch, lastSequence, false, mutations);
+    }
+
+    private int index(long sequence) {
+        return (int) ((sequence - 1) % entries.length);
+    }
+
+}
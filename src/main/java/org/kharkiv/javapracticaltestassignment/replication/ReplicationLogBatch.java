@@ -0,0 +1,9 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import java.util.List;
+
+/**
+ * Log tail returned to followers. {@code truncated} means the requested position has already been
+ * dropped from the bounded log, or lies ahead of it, and the follower has to start again from a snapshot.
+ */
+public record ReplicationLogBatch(String epoch, long leaderSequence, boolean truncated, List<Mutation> mutations) {}
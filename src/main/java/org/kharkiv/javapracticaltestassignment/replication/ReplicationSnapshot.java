@@ -0,0 +1,7 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.util.List;
+
+public record ReplicationSnapshot(String epoch, long sequence, List<User> users) {}
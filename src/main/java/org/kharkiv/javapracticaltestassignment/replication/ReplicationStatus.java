@@ -0,0 +1,3 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+public record ReplicationStatus(String role, long appliedSequence, long leaderSequence, long lagEntries, long lagMillis) {}
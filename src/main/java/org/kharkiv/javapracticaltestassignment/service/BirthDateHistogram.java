@@ -0,0 +1,115 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Count of users per birth date, kept in a Fenwick tree over the epoch days from 1900 to 2100 so that
+ * both updates and "how many users were born between two dates" take O(log n). Dates outside that range
+ * are rare and go to a sorted map of per-day counts instead, so an extreme date such as year -100000
+ * costs one map entry rather than a tree spanning the gap.
+ */
+public class BirthDateHistogram {
+
+    private static final long TRACKED_FROM = LocalDate.of(1900, 1, 1).toEpochDay();
+
+    private static final long TRACKED_TO = LocalDate.of(2100, 1, 1).toEpochDay();
+
+    private int[] tree = new int[(int) (TRACKED_TO - TRACKED_FROM) + 2];
+
+    private final TreeMap<Long, Integer> outliers = new TreeMap<>();
+
+    private long total;
+
+    public synchronized void add(LocalDate birthDate) {
+        update(birthDate, 1);
+    }
+
+    public synchronized void remove(LocalDate birthDate) {
+        update(birthDate, -1);
+    }
+
+    public synchronized void move(LocalDate from, LocalDate to) {
+        if (from != null && from.equals(to)) {
+            return;
+        }
+        update(from, -1);
+        update(to, 1);
+    }
+
+    public synchronized void clear() {
+        tree = new int[tree.length];
+        outliers.clear();
+        total = 0;
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Number of users born between {@code fromDate} and {@code toDate}, both inclusive.
+     */
+    public synchronized long count(LocalDate fromDate, LocalDate toDate) {
+        long fromDay = fromDate.toEpochDay();
+        long toDay = toDate.toEpochDay();
+        if (fromDay > toDay) {
+            return 0;
+        }
+        long count = 0;
+        long from = Math.max(fromDay, TRACKED_FROM);
+        long to = Math.min(toDay, TRACKED_TO);
+        if (from <= to) {
+            count += prefix((int) (to - TRACKED_FROM) + 1) - prefix((int) (from - TRACKED_FROM));
+        }
+        for (int outlier : outliers.subMap(fromDay, true, toDay, true).values()) {
+            count += outlier;
+        }
+        return count;
+    }
+
+    /**
+     * Users per birth year, for years with at least one user.
+     */
+    public synchronized Map<Integer, Long> countByYear() {
+        Map<Integer, Long> histogram = new TreeMap<>();
+        int firstYear = LocalDate.ofEpochDay(TRACKED_FROM).getYear();
+        int lastYear = LocalDate.ofEpochDay(TRACKED_TO).getYear();
+        for (int year = firstYear; year <= lastYear; year++) {
+            long from = LocalDate.of(year, 1, 1).toEpochDay();
+            long to = Math.min(LocalDate.of(year, 12, 31).toEpochDay(), TRACKED_TO);
+            long count = prefix((int) (to - TRACKED_FROM) + 1) - prefix((int) (from - TRACKED_FROM));
+            if (count > 0) {
+                histogram.put(year, count);
+            }
+        }
+        for (Map.Entry<Long, Integer> outlier : outliers.entrySet()) {
+            histogram.merge(LocalDate.ofEpochDay(outlier.getKey()).getYear(), (long) outlier.getValue(), Long::sum);
+        }
+        return histogram;
+    }
+
+    private void update(LocalDate birthDate, int delta) {
+        if (birthDate == null) {
+            return;
+        }
+        long day = birthDate.toEpochDay();
+        if (day < TRACKED_FROM || day > TRACKED_TO) {
+            outliers.merge(day, delta, (count, change) -> count + change == 0 ? null : count + change);
+        } else {
+            for (int i = (int) (day - TRACKED_FROM) + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+        total += delta;
+    }
+
+    private long prefix(int index) {
+        long sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,38 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+
+public enum BulkFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+
+    private final String mediaType;
+
+    BulkFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static BulkFormat fromName(String name) {
+        for (BulkFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name) || format.mediaType.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new UserIllegalArgumentException("Unsupported bulk format: " + name);
+    }
+
+    public static BulkFormat fromFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,113 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.kharkiv.javapracticaltestassignment.model.EmailKey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over email keys with 4-bit counters packed sixteen to a {@code long}.
+ * <p>
+ * Sized for {@code capacity} emails at about ten counters each, which keeps the false-positive rate
+ * near 1% with {@value #HASHES} hashes. Counters saturate at 15 and are never decremented afterwards,
+ * so removals can leave false positives behind but never cause false negatives.
+ * {@link #add} and {@link #remove} must be serialized by the caller; {@link UserStore} does so with its
+ * own lock and replaces the filter with a larger one once it is {@link #isFull() full}. Counter words
+ * are read and written atomically, so {@link #mightContain} needs no lock: it sees each word either
+ * before or after a concurrent update, and a present key's counters never drop to zero.
+ */
+final class EmailBloomFilter {
+
+    private static final int HASHES = 7;
+
+    private static final int COUNTERS_PER_EMAIL = 10;
+
+    private static final long SATURATED = 15;
+
+    private final AtomicLongArray counters;
+
+    private final int mask;
+
+    private final int capacity;
+
+    private int size;
+
+    private int nonZero;
+
+    EmailBloomFilter(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(64, capacity * COUNTERS_PER_EMAIL - 1)) << 1;
+        this.counters = new AtomicLongArray(slots >>> 4);
+        this.mask = slots - 1;
+        this.capacity = capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean isFull() {
+        return size > capacity;
+    }
+
+    void add(EmailKey key) {
+        long hash = key.hash64();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int slot = (h1 + i * h2) & mask;
+            long counter = counter(slot);
+            if (counter == 0) {
+                nonZero++;
+            }
+            if (counter < SATURATED) {
+                setCounter(slot, counter + 1);
+            }
+        }
+        size++;
+    }
+
+    void remove(EmailKey key) {
+        long hash = key.hash64();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int slot = (h1 + i * h2) & mask;
+            long counter = counter(slot);
+            if (counter > 0 && counter < SATURATED) {
+                setCounter(slot, counter - 1);
+                if (counter == 1) {
+                    nonZero--;
+                }
+            }
+        }
+        size--;
+    }
+
+    boolean mightContain(EmailKey key) {
+        long hash = key.hash64();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            if (counter((h1 + i * h2) & mask) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive rate expected from the current fill, {@code (nonZero / slots)^k}.
+     */
+    double estimatedFalsePositiveRate() {
+        return Math.pow((double) nonZero / (mask + 1), HASHES);
+    }
+
+    private long counter(int slot) {
+        return (counters.get(slot >>> 4) >>> ((slot & 15) << 2)) & 15;
+    }
+
+    private void setCounter(int slot, long value) {
+        int shift = (slot & 15) << 2;
+        int word = slot >>> 4;
+        counters.set(word, (counters.get(word) & ~(15L << shift)) | (value << shift));
+    }
+}
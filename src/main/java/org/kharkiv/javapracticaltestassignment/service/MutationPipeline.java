@@ -0,0 +1,233 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer execution of mutations. Callers publish tasks to a bounded lock-free ring buffer
+ * (multi-producer, single-consumer) and get a future back; one writer thread drains up to
+ * {@code batchSize} tasks at a time and runs the whole batch while holding {@code lock} once.
+ * Futures are completed after the lock is released.
+ * <p>
+ * A task that throws, even an {@link Error}, fails only its own future. Once closed, every task still
+ * in the ring fails with {@link IllegalStateException}, including one a producer publishes as the writer
+ * stops: the producer notices the stop after publishing and fails the task itself unless the writer has
+ * already claimed it.
+ */
+public class MutationPipeline {
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private static final int FULL_SPINS = 64;
+
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    private final Object lock;
+
+    private final int batchSize;
+
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicReferenceArray<Task<?>> tasks;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private long head;
+
+    private final Thread writer;
+
+    private volatile boolean sleeping;
+
+    private volatile boolean running = true;
+
+    public MutationPipeline(Object lock, int capacity, int batchSize) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.lock = lock;
+        this.batchSize = batchSize;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.tasks = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.writer = new Thread(this::run, "user-mutation-writer");
+        this.writer.setDaemon(true);
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Stops the writer, waits for its current batch and fails whatever is left in the ring.
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) {
+            failRemaining();
+        }
+    }
+
+    /**
+     * Publishes {@code mutation}, spinning and then parking while the ring is full so producers are
+     * held back rather than queueing without bound.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> mutation) {
+        Task<T> task = new Task<>(mutation);
+        int spins = 0;
+        while (!offer(task)) {
+            if (!running) {
+                throw stopped();
+            }
+            if (++spins < FULL_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        }
+        if (!running) {
+            task.fail(stopped());
+        } else if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+        return task.future;
+    }
+
+    private boolean offer(Task<?> task) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    tasks.lazySet(index, task);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private Task<?> poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        Task<?> task = tasks.get(index);
+        tasks.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return task;
+    }
+
+    private void run() {
+        List<Task<?>> batch = new ArrayList<>(batchSize);
+        while (running) {
+            Task<?> task = poll();
+            if (task == null) {
+                sleeping = true;
+                if (sequences.get((int) head & mask) != head + 1) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+                continue;
+            }
+
+            synchronized (lock) {
+                while (task != null) {
+                    if (task.claim()) {
+                        batch.add(task);
+                        task.run();
+                    }
+                    task = batch.size() < batchSize ? poll() : null;
+                }
+            }
+
+            for (Task<?> completed : batch) {
+                completed.complete();
+            }
+            batch.clear();
+        }
+        failRemaining();
+    }
+
+    private void failRemaining() {
+        for (Task<?> task = poll(); task != null; task = poll()) {
+            task.fail(stopped());
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Mutation pipeline is stopped");
+    }
+
+    private static final class Task<T> {
+
+        private final Supplier<T> mutation;
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private T result;
+
+        private Throwable failure;
+
+        private Task(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        /**
+         * True for exactly one of the writer, which then runs the task, and {@link #fail}.
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void run() {
+            try {
+                result = mutation.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        void fail(RuntimeException e) {
+            if (claim()) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        void complete() {
+            if (failure == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+}
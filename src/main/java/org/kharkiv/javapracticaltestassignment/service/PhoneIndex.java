@@ -0,0 +1,229 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Values (users or their store entries) by phone number in an open-addressing table keyed by primitive {@code long}s.
+ * <p>
+ * A number is normalized by dropping the leading '+' and packed one digit per nibble as digit + 1,
+ * which keeps leading zeros significant and leaves 0 free to mark empty slots. Numbers longer than
+ * {@value #MAX_DIGITS} digits cannot be packed and are not indexed; {@link #pack} returns 0 for them.
+ * <p>
+ * Writers are expected to be serialized by the caller; readers use optimistic reads and only fall
+ * back to a read lock when a write raced with them. Several values under one number are kept in an
+ * {@code Object[]}, so values must not be arrays themselves.
+ */
+public class PhoneIndex<V> {
+
+    static final int MAX_DIGITS = 16;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    private int size;
+
+    public static long pack(String phoneNumber) {
+        if (phoneNumber == null) {
+            return 0;
+        }
+        int start = phoneNumber.startsWith("+") ? 1 : 0;
+        int digits = phoneNumber.length() - start;
+        if (digits == 0 || digits > MAX_DIGITS) {
+            return 0;
+        }
+        long key = 0;
+        for (int i = start; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            key = (key << 4) | (c - '0' + 1);
+        }
+        return key;
+    }
+
+    public List<V> find(long key) {
+        long stamp = lock.tryOptimisticRead();
+        List<V> matches = lookup(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                matches = lookup(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return matches;
+    }
+
+    public void add(String phoneNumber, V user) {
+        long key = pack(phoneNumber);
+        if (key == 0) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int slot = slot(keys, key);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                values[slot] = user;
+                size++;
+            } else if (values[slot] instanceof Object[] existing) {
+                Object[] grown = new Object[existing.length + 1];
+                System.arraycopy(existing, 0, grown, 0, existing.length);
+                grown[existing.length] = user;
+                values[slot] = grown;
+            } else {
+                values[slot] = new Object[]{values[slot], user};
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String phoneNumber, V user) {
+        long key = pack(phoneNumber);
+        if (key == 0) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = slot(keys, key);
+            if (keys[slot] == 0) {
+                return;
+            }
+            if (values[slot] == user) {
+                deleteSlot(slot);
+            } else if (values[slot] instanceof Object[] existing) {
+                values[slot] = without(existing, user);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void move(String from, String to, V user) {
+        if (from != null && from.equals(to)) {
+            return;
+        }
+        remove(from, user);
+        add(to, user);
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            keys = new long[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<V> lookup(long key) {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        if (keys.length != values.length) {
+            return Collections.emptyList();
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            long candidate = keys[slot];
+            if (candidate == 0) {
+                return Collections.emptyList();
+            }
+            if (candidate == key) {
+                Object value = values[slot];
+                if (value instanceof Object[] multiple) {
+                    return new ArrayList<>((List<V>) List.of(multiple));
+                }
+                return value == null ? Collections.emptyList() : List.of((V) value);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return Collections.emptyList();
+    }
+
+    private static int slot(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static Object without(Object[] users, Object user) {
+        int index = -1;
+        for (int i = 0; i < users.length; i++) {
+            if (users[i] == user) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return users;
+        }
+        if (users.length == 2) {
+            return users[1 - index];
+        }
+        Object[] shrunk = new Object[users.length - 1];
+        System.arraycopy(users, 0, shrunk, 0, index);
+        System.arraycopy(users, index + 1, shrunk, index, users.length - index - 1);
+        return shrunk;
+    }
+
+    /**
+     * Deletes a slot and shifts later entries of the same probe run back, so no tombstones are needed.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] newKeys = new long[capacity];
+        Object[] newValues = new Object[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                int slot = slot(newKeys, keys[i]);
+                newKeys[slot] = keys[i];
+                newValues[slot] = values[i];
+            }
+        }
+        values = newValues;
+        keys = newKeys;
+    }
+}
@@ -0,0 +1,59 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link UserService}. Mutations complete through the service's futures, so
+ * in single-writer mode no request thread waits for the writer. In locked mode the service applies a
+ * mutation on the calling thread under its lock, so the mutation is subscribed on
+ * {@link Schedulers#boundedElastic()} instead. List results are emitted lazily from the store instead
+ * of being collected.
+ */
+@Service
+public class ReactiveUserService {
+
+    private final UserService userService;
+
+    public ReactiveUserService(UserService userService) {
+        this.userService = userService;
+    }
+
+    public Flux<User> getAllUsers() {
+        return Flux.defer(() -> Flux.fromIterable(userService.getAllUsers()));
+    }
+
+    public Mono<Void> create(User user) {
+        return mutate(() -> userService.createAsync(user));
+    }
+
+    public Mono<Void> updateUser(String email, Map<String, String> updates) {
+        return mutate(() -> userService.updateUserAsync(email, updates));
+    }
+
+    public Mono<Void> updateUserByEmail(String email, User updatedUser) {
+        return mutate(() -> userService.updateUserByEmailAsync(email, updatedUser));
+    }
+
+    public Mono<Void> delete(String email) {
+        return mutate(() -> userService.deleteAsync(email));
+    }
+
+    public Flux<User> getUsersByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return Flux.defer(() -> Flux.fromStream(userService.streamUsersByBirthDateRange(fromDate, toDate)));
+    }
+
+    private Mono<Void> mutate(Supplier<CompletableFuture<Void>> mutation) {
+        Mono<Void> result = Mono.fromFuture(mutation);
+        return userService.isSingleWriter() ? result : result.subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
@@ -0,0 +1,199 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.kharkiv.javapracticaltestassignment.model.SharedUserList;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of read queries. Requests with an equal key share one computation while it
+ * runs and, for {@code coalesce.window-ms} after it finished, its result. Keys should include the store
+ * version, so a shared result is never older than the data a request could otherwise have seen.
+ * <p>
+ * Finished flights are queued in completion order and every request first evicts those whose window
+ * has ended, so a result is not kept past its window just because the keys moved on to a new store
+ * version. At most {@code coalesce.max-entries} results are kept, beyond that requests compute on their
+ * own, and the serialized forms of all kept lists together stay under {@code coalesce.max-retained-bytes}.
+ */
+@Component
+public class ReadCoalescer implements MeterBinder {
+
+    private final ConcurrentHashMap<Object, Flight> flights = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Flight> finished = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    private final LongAdder computed = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final long windowMs;
+
+    private final int maxEntries;
+
+    private final int maxResultBytes;
+
+    private final long maxRetainedBytes;
+
+    private final SharedUserList.ByteBudget budget = new SharedUserList.ByteBudget() {
+        @Override
+        public boolean tryReserve(int bytes) {
+            long retained = retainedBytes.addAndGet(bytes);
+            if (retained > maxRetainedBytes) {
+                retainedBytes.addAndGet(-bytes);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void release(int bytes) {
+            retainedBytes.addAndGet(-bytes);
+        }
+    };
+
+    public ReadCoalescer(@Value("${coalesce.window-ms}") long windowMs,
+                         @Value("${coalesce.max-entries}") int maxEntries,
+                         @Value("${coalesce.max-result-bytes}") int maxResultBytes,
+                         @Value("${coalesce.max-retained-bytes}") long maxRetainedBytes) {
+        this.windowMs = windowMs;
+        this.maxEntries = maxEntries;
+        this.maxResultBytes = maxResultBytes;
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * Runs {@code query} once for all concurrent requests with the same key and shares its users,
+     * together with their serialized form, as a {@link SharedUserList}.
+     */
+    public List<User> users(Object key, Supplier<? extends Collection<User>> query) {
+        SharedUserList.ByteBudget listBudget = windowMs > 0 ? budget : SharedUserList.ByteBudget.UNLIMITED;
+        return execute(key, () -> new SharedUserList(query.get(), maxResultBytes, listBudget));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> computation) {
+        long now = System.nanoTime();
+        expire(now);
+        Flight flight = flights.get(key);
+        if (flight == null || !flight.isReusable(now)) {
+            if (flights.size() >= maxEntries) {
+                computed.increment();
+                return computation.get();
+            }
+            Flight created = new Flight(key);
+            flight = flights.compute(key, (k, current) -> current != null && current.isReusable(now) ? current : created);
+            if (flight == created) {
+                return (T) run(key, created, computation);
+            }
+        }
+        coalesced.increment();
+        try {
+            return (T) flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Object run(Object key, Flight flight, Supplier<?> computation) {
+        computed.increment();
+        try {
+            Object result = computation.get();
+            flight.completedAt = System.nanoTime();
+            flight.result.complete(result);
+            if (windowMs <= 0) {
+                flights.remove(key, flight);
+            } else {
+                finished.add(flight);
+            }
+            return result;
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Evicts finished flights whose window has ended. All flights share one window, so the queue is in
+     * expiry order and the first flight still in its window ends the scan.
+     */
+    private void expire(long now) {
+        for (Flight flight = finished.peek(); flight != null && !flight.isReusable(now); flight = finished.peek()) {
+            if (finished.remove(flight)) {
+                evict(flight);
+            }
+        }
+    }
+
+    private void evict(Flight flight) {
+        flights.remove(flight.key, flight);
+        if (flight.result.getNow(null) instanceof SharedUserList users) {
+            users.release();
+        }
+    }
+
+    long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    int size() {
+        return flights.size();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getComputedCount() {
+        return computed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.read.coalesced", this, ReadCoalescer::getCoalescedCount)
+                .description("Read requests answered by another request's computation")
+                .register(registry);
+        FunctionCounter.builder("users.read.computed", this, ReadCoalescer::getComputedCount)
+                .description("Read requests that ran their own computation")
+                .register(registry);
+    }
+
+    private class Flight {
+
+        final Object key;
+
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        volatile long completedAt;
+
+        Flight(Object key) {
+            this.key = key;
+        }
+
+        boolean isReusable(long now) {
+            return !result.isDone() || now - completedAt <= TimeUnit.MILLISECONDS.toNanos(windowMs);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 codec for users: one user per line, fields in {@link #HEADER} order,
+ * empty fields read as null.
+ */
+final class UserCsv {
+
+    static final String HEADER = "email,firstName,lastName,birthDate,address,phoneNumber";
+
+    private UserCsv() {
+    }
+
+    static User parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != 6) {
+            throw new UserIllegalArgumentException("Expected 6 fields but found " + fields.size());
+        }
+        try {
+            return User.builder()
+                    .email(fields.get(0))
+                    .firstName(fields.get(1))
+                    .lastName(fields.get(2))
+                    .birthDate(fields.get(3) == null ? null : LocalDate.parse(fields.get(3)))
+                    .address(fields.get(4))
+                    .phoneNumber(fields.get(5))
+                    .build();
+        } catch (DateTimeParseException e) {
+            throw new UserIllegalArgumentException("Invalid birth date: " + fields.get(3));
+        }
+    }
+
+    static String format(User user) {
+        StringBuilder line = new StringBuilder(128);
+        append(line, user.getEmail()).append(',');
+        append(line, user.getFirstName()).append(',');
+        append(line, user.getLastName()).append(',');
+        append(line, user.getBirthDate() == null ? null : user.getBirthDate().toString()).append(',');
+        append(line, user.getAddress()).append(',');
+        append(line, user.getPhoneNumber()).append('\n');
+        return line.toString();
+    }
+
+    private static StringBuilder append(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.isEmpty() ? null : field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new UserIllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.isEmpty() ? null : field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,54 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.kharkiv.javapracticaltestassignment.model.EmailKey;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.time.LocalDate;
+
+/**
+ * Resident index entry of a user in {@link UserStore}. Email key and birth date always stay on heap so
+ * lookups and range filters never touch disk; the {@link User} itself is only present while hot.
+ * Users are not changed in place: an update swaps a new {@link User} in.
+ */
+final class UserEntry {
+
+    final long sequence;
+
+    volatile EmailKey key;
+
+    volatile LocalDate birthDate;
+
+    /**
+     * The user while hot, null while only the cold copy exists.
+     */
+    volatile User user;
+
+    /**
+     * Store version of the user's last change, exposed as its entity tag. Zero or negative while
+     * {@link UserService} is swapping in a new user, so readers know to retry.
+     */
+    volatile long version;
+
+    /**
+     * Location of the user's record in the segment file, null if the disk copy is missing or stale.
+     */
+    volatile ColdCopy coldCopy;
+
+    /**
+     * Access count since the clock hand last passed, used to pick eviction victims.
+     */
+    volatile int hits;
+
+    int pins;
+
+    boolean removed;
+
+    UserEntry(long sequence, User user) {
+        this.sequence = sequence;
+        this.key = EmailKey.of(user.getEmail());
+        this.birthDate = user.getBirthDate();
+        this.user = user;
+    }
+
+    record ColdCopy(long offset, int length) {}
+}
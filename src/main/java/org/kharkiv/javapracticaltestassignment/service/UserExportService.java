@@ -0,0 +1,107 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports all users as NDJSON or CSV. The first export of a store version writes a consistent snapshot
+ * to a file under {@code bulk.export-dir}; this and every later export of the same version is sent with
+ * {@link FileChannel#transferTo}, so repeated exports cost no serialization. The users are copied under
+ * the {@link UserService} lock and written outside it, so a slow disk does not stall writers.
+ */
+@Service
+public class UserExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final UserService userService;
+
+    private final ObjectWriter userWriter;
+
+    private final Path exportDir;
+
+    public UserExportService(UserService userService, ObjectMapper objectMapper,
+                             @Value("${bulk.export-dir}") String exportDir) {
+        this.userService = userService;
+        this.userWriter = objectMapper.writerFor(User.class);
+        this.exportDir = Path.of(exportDir);
+    }
+
+    public void export(BulkFormat format, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = openExportFile(format)) {
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    private synchronized FileChannel openExportFile(BulkFormat format) throws IOException {
+        Path file = exportFile(format, userService.getVersion());
+        if (Files.notExists(file)) {
+            file = buildExportFile(format);
+        }
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private Path buildExportFile(BulkFormat format) throws IOException {
+        Files.createDirectories(exportDir);
+        List<User> users = new ArrayList<>();
+        long[] version = new long[1];
+        userService.readSnapshot((snapshotVersion, snapshotUsers) -> {
+            version[0] = snapshotVersion;
+            users.addAll(snapshotUsers);
+        });
+
+        Path file = exportFile(format, version[0]);
+        Path temp = Files.createTempFile(exportDir, "users-", ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), WRITE_BUFFER_SIZE)) {
+            if (format == BulkFormat.CSV) {
+                out.write((UserCsv.HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            for (User user : users) {
+                if (format == BulkFormat.CSV) {
+                    out.write(UserCsv.format(user).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(user.jsonFragment(userWriter));
+                    out.write('\n');
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deleteStaleExports(format, file);
+        return file;
+    }
+
+    private void deleteStaleExports(BulkFormat format, Path current) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(exportDir, "users-*." + format.extension())) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private Path exportFile(BulkFormat format, long version) {
+        return exportDir.resolve("users-" + version + "." + format.extension());
+    }
+}
@@ -0,0 +1,43 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kharkiv.javapracticaltestassignment.model.ImportResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Seeds the store from {@code bulk.import-file} at startup, if set. The format follows the file extension.
+ */
+@Slf4j
+@Component
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImportService userImportService;
+
+    @Value("${bulk.import-file}")
+    private String importFile;
+
+    public UserImportRunner(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (importFile == null || importFile.isBlank()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(Path.of(importFile), StandardOpenOption.READ)) {
+            ImportResult result = userImportService.importUsers(channel, BulkFormat.fromFileName(importFile));
+            log.info("Imported {} users from {} in {} ms, {} rejected", result.imported(), importFile,
+                    (System.nanoTime() - start) / 1_000_000, result.rejected());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.kharkiv.javapracticaltestassignment.model.ImportResult;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports users from NDJSON or CSV read incrementally from a channel. Memory use is bounded by the
+ * read buffer and one batch, whatever the input size. Users go through the same bean validation as
+ * {@code POST /users} and are created through {@link UserService#createAll} in batches.
+ * <p>
+ * Records end at a newline, except that a CSV newline inside a quoted field belongs to the field.
+ */
+@Service
+public class UserImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final UserService userService;
+
+    private final Validator validator;
+
+    private final ObjectReader userReader;
+
+    @Value("${bulk.batch-size}")
+    private int batchSize;
+
+    @Value("${bulk.buffer-size}")
+    private int bufferSize;
+
+    public UserImportService(UserService userService, Validator validator, ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.validator = validator;
+        this.userReader = objectMapper.readerFor(User.class);
+    }
+
+    public ImportResult importUsers(ReadableByteChannel source, BulkFormat format) throws IOException {
+        ImportState state = new ImportState(format);
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        byte[] bytes = buffer.array();
+        boolean csv = format == BulkFormat.CSV;
+        boolean skipping = false;
+        boolean endOfInput = false;
+
+        while (!endOfInput) {
+            endOfInput = source.read(buffer) < 0;
+            int end = buffer.position();
+            int lineStart = 0;
+            boolean quoted = false;
+            for (int i = 0; i < end; i++) {
+                if (csv && bytes[i] == '"') {
+                    quoted = !quoted;
+                }
+                if (bytes[i] != '\n' || quoted) {
+                    continue;
+                }
+                if (skipping) {
+                    skipping = false;
+                } else {
+                    state.line(bytes, lineStart, i - lineStart);
+                }
+                lineStart = i + 1;
+            }
+
+            if (endOfInput) {
+                if (lineStart < end && !skipping) {
+                    state.line(bytes, lineStart, end - lineStart);
+                }
+            } else if (lineStart == 0 && end == bytes.length) {
+                if (!skipping) {
+                    state.skipLine("line is longer than " + bufferSize + " bytes");
+                }
+                skipping = true;
+                buffer.clear();
+            } else {
+                buffer.limit(end).position(lineStart);
+                buffer.compact();
+            }
+        }
+
+        state.flush();
+        return state.result();
+    }
+
+    private final class ImportState {
+
+        private final BulkFormat format;
+
+        private final List<User> batch = new ArrayList<>(batchSize);
+
+        private final List<String> errors = new ArrayList<>();
+
+        private long lineNumber;
+
+        private long imported;
+
+        private long rejected;
+
+        private ImportState(BulkFormat format) {
+            this.format = format;
+        }
+
+        void line(byte[] bytes, int offset, int length) {
+            lineNumber++;
+            if (length > 0 && bytes[offset + length - 1] == '\r') {
+                length--;
+            }
+            if (length == 0) {
+                return;
+            }
+
+            User user;
+            try {
+                if (format == BulkFormat.CSV) {
+                    String text = new String(bytes, offset, length, StandardCharsets.UTF_8);
+                    if (lineNumber == 1 && text.equals(UserCsv.HEADER)) {
+                        return;
+                    }
+                    user = UserCsv.parse(text);
+                } else {
+                    user = userReader.readValue(bytes, offset, length);
+                }
+            } catch (IOException | RuntimeException e) {
+                reject(e.getMessage());
+                return;
+            }
+
+            Set<ConstraintViolation<User>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                StringBuilder message = new StringBuilder();
+                for (ConstraintViolation<User> violation : violations) {
+                    message.append(violation.getMessage()).append("; ");
+                }
+                reject(message.toString());
+                return;
+            }
+
+            batch.add(user);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void skipLine(String message) {
+            lineNumber++;
+            reject(message);
+        }
+
+        void reject(String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<String> batchErrors = userService.createAll(batch);
+            imported += batch.size() - batchErrors.size();
+            rejected += batchErrors.size();
+            for (String error : batchErrors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+            batch.clear();
+        }
+
+        ImportResult result() {
+            return new ImportResult(imported, rejected, errors);
+        }
+    }
+}
@@ -1,44 +1,190 @@
 package org.kharkiv.javapracticaltestassignment.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.kharkiv.javapracticaltestassignment.exception.UserBadRequestException;
 import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
 import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.kharkiv.javapracticaltestassignment.exception.UserPreconditionFailedException;
+import org.kharkiv.javapracticaltestassignment.exception.UserReadOnlyException;
 import org.kharkiv.javapracticaltestassignment.model.User;
-import org.springframework.beans.BeanUtils;
+import org.kharkiv.javapracticaltestassignment.model.VersionedUser;
+import org.kharkiv.javapracticaltestassignment.profiling.UserOperationEvent;
+import org.kharkiv.javapracticaltestassignment.replication.Mutation;
+import org.kharkiv.javapracticaltestassignment.replication.MutationType;
+import org.kharkiv.javapracticaltestassignment.replication.ReplicationLog;
+import org.kharkiv.javapracticaltestassignment.replication.ReplicationSnapshot;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 
 @Service
 public class UserService {
 
-    private List<User> users = new ArrayList<>();
+    private static final int SCRATCH_LOG_CAPACITY = 1024;
+
+    private final UserStore userStore;
+
+    private final BirthDateHistogram birthDateHistogram = new BirthDateHistogram();
+
+    private final PhoneIndex<UserEntry> phoneIndex = new PhoneIndex<>();
+
+    private final ReplicationLog replicationLog;
+
+    private volatile long version;
 
     @Value("${min.age}")
     private int minAge;
 
+    @Value("${replication.role}")
+    private String replicationRole;
+
+    @Value("${write.mode}")
+    private String writeMode;
+
+    @Value("${write.ring-capacity}")
+    private int ringCapacity;
+
+    @Value("${write.batch-size}")
+    private int writeBatchSize;
+
+    private MutationPipeline mutationPipeline;
+
+    public UserService(ReplicationLog replicationLog, UserStore userStore) {
+        this.replicationLog = replicationLog;
+        this.userStore = userStore;
+    }
+
+    /**
+     * With {@code write.mode=single-writer} all mutations are handed to a {@link MutationPipeline}
+     * and applied in batches by its writer thread; otherwise callers apply them under the service lock.
+     * Validation always runs together with the mutation, so both modes reject the same requests.
+     */
+    @PostConstruct
+    void startMutationPipeline() {
+        if ("single-writer".equalsIgnoreCase(writeMode)) {
+            mutationPipeline = new MutationPipeline(this, ringCapacity, writeBatchSize);
+            mutationPipeline.start();
+        }
+    }
+
+    @PreDestroy
+    void stopMutationPipeline() {
+        if (mutationPipeline != null) {
+            mutationPipeline.close();
+        }
+    }
+
+    /**
+     * Returns an empty service with this one's settings, but its own store and replication log and
+     * always accepting writes. Nothing done to it reaches the real users; {@link #shutdown()} it when done.
+     */
+    public UserService newScratchInstance() {
+        UserService scratch = new UserService(new ReplicationLog(SCRATCH_LOG_CAPACITY), userStore.newScratchInstance());
+        scratch.minAge = minAge;
+        scratch.replicationRole = "leader";
+        scratch.writeMode = writeMode;
+        scratch.ringCapacity = ringCapacity;
+        scratch.writeBatchSize = writeBatchSize;
+        scratch.startMutationPipeline();
+        return scratch;
+    }
+
+    /**
+     * Stops the writer thread and closes the store of an instance from {@link #newScratchInstance()}.
+     * The managed instance is shut down by the container.
+     */
+    public void shutdown() throws IOException {
+        stopMutationPipeline();
+        userStore.close();
+    }
+
+    /**
+     * Returns a read-only live view of all users in insertion order. Cold users are read from disk
+     * while iterating and are not promoted.
+     */
     public List<User> getAllUsers() {
-        return users;
+        return userStore.view();
+    }
+
+    /**
+     * Store version, incremented by every mutation. Lets callers cache derived data per version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * True if mutations go through the {@link MutationPipeline}, false if they run on the caller's thread.
+     */
+    public boolean isSingleWriter() {
+        return mutationPipeline != null;
     }
 
     public void create(User user) {
+        execute("create", user.getEmail(), () -> doCreate(user));
+    }
+
+    public CompletableFuture<Void> createAsync(User user) {
+        return submit("create", user.getEmail(), () -> doCreate(user));
+    }
+
+    private Void doCreate(User user) {
+        checkWritable();
+        validateNewUser(user);
+
+        add(user);
+        replicationLog.append(MutationType.CREATE, user.getEmail(), user);
+        return null;
+    }
+
+    /**
+     * Creates every valid user of {@code batch} with the same checks as {@link #create} and
+     * returns the reasons the others were rejected.
+     */
+    public List<String> createAll(List<User> batch) {
+        return execute("createAll", null, () -> doCreateAll(batch), errors -> batch.size() - errors.size());
+    }
+
+    private List<String> doCreateAll(List<User> batch) {
+        checkWritable();
+        List<String> errors = new ArrayList<>();
+        for (User user : batch) {
+            try {
+                validateNewUser(user);
+            } catch (UserBadRequestException e) {
+                errors.add(user.getEmail() + ": " + e.getMessage());
+                continue;
+            }
+            add(user);
+            replicationLog.append(MutationType.CREATE, user.getEmail(), user);
+        }
+        return errors;
+    }
+
+    private void validateNewUser(User user) {
         if (calculateAge(user.getBirthDate()) < minAge) {
             throw new UserBadRequestException("User must be at least " + minAge + " years old.");
         }
 
-        if (findUserByEmail(user.getEmail()).isPresent()) {
+        if (userStore.contains(user.getEmail())) {
             throw new UserBadRequestException("User with email " + user.getEmail() + " already exists.");
         }
-
-        users.add(user);
     }
 
     public int calculateAge(LocalDate birthDate) {
@@ -47,41 +193,74 @@ public class UserService {
     }
 
     public void updateUser(String email, Map<String, String> updates) {
-        Optional<User> optionalUser = findUserByEmail(email);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-
-            for (Map.Entry<String, String> entry : updates.entrySet()) {
-                String fieldName = entry.getKey();
-                String fieldValue = entry.getValue();
-
-                switch (fieldName) {
-                    case "firstName":
-                        validateAndUpdateFirstName(user, fieldValue);
-                        break;
-                    case "lastName":
-                        validateAndUpdateLastName(user, fieldValue);
-                        break;
-                    case "birthDate":
-                        validateAndUpdateBirthDate(user, fieldValue);
-                        break;
-                    case "address":
-                        user.setAddress(fieldValue);
-                        break;
-                    case "phoneNumber":
-                        validateAndUpdatePhoneNumber(user, fieldValue);
-                        break;
-                    default:
-                        throw new UserIllegalArgumentException("Invalid field name: " + fieldName);
-                }
-            }
+        updateUser(email, updates, null);
+    }
+
+    /**
+     * Applies {@code updates} to a copy of the user and swaps it in, all or nothing, and returns the new
+     * version. With {@code expectedVersion} set, a user changed since that version is left alone and
+     * {@link UserPreconditionFailedException} is thrown instead.
+     */
+    public long updateUser(String email, Map<String, String> updates, Long expectedVersion) {
+        return execute("updateUser", email, () -> doUpdateUser(email, updates, expectedVersion));
+    }
+
+    public CompletableFuture<Void> updateUserAsync(String email, Map<String, String> updates) {
+        return submit("updateUser", email, () -> {
+            doUpdateUser(email, updates, null);
+            return null;
+        });
+    }
 
-            users.set(users.indexOf(user), user);
+    private long doUpdateUser(String email, Map<String, String> updates, Long expectedVersion) {
+        checkWritable();
+        UserEntry entry = userStore.entry(email);
+        if (entry != null) {
+            checkVersion(entry, expectedVersion);
+            User current = userStore.pin(entry);
+            boolean replaced = false;
+            try {
+                User updated = current.toBuilder().build();
+                applyUpdates(updated, updates);
+                long newVersion = replace(entry, current, updated);
+                replaced = true;
+                replicationLog.append(MutationType.UPDATE, email, updated);
+                return newVersion;
+            } finally {
+                userStore.unpin(entry, replaced);
+            }
         } else {
             throw new UserNotFoundException("User with email " + email + " not found");
         }
     }
 
+    private void applyUpdates(User user, Map<String, String> updates) {
+        for (Map.Entry<String, String> entry : updates.entrySet()) {
+            String fieldName = entry.getKey();
+            String fieldValue = entry.getValue();
+
+            switch (fieldName) {
+                case "firstName":
+                    validateAndUpdateFirstName(user, fieldValue);
+                    break;
+                case "lastName":
+                    validateAndUpdateLastName(user, fieldValue);
+                    break;
+                case "birthDate":
+                    validateAndUpdateBirthDate(user, fieldValue);
+                    break;
+                case "address":
+                    user.setAddress(fieldValue);
+                    break;
+                case "phoneNumber":
+                    validateAndUpdatePhoneNumber(user, fieldValue);
+                    break;
+                default:
+                    throw new UserIllegalArgumentException("Invalid field name: " + fieldName);
+            }
+        }
+    }
+
     private void validateAndUpdateFirstName(User user, String firstName) {
         if (firstName.isEmpty()) {
             throw new UserBadRequestException("First name cannot be empty");
@@ -117,20 +296,93 @@ public class UserService {
     }
 
 
+    /**
+     * Looks the user up in the resident email index, promoting it to the hot set if it was cold.
+     */
     public Optional<User> findUserByEmail(String email) {
-        Optional<User> optionalUser = users.stream()
-                .filter(user -> user.getEmail().equals(email))
-                .findFirst();
-        return optionalUser;
+        return UserOperationEvent.record("findUserByEmail", email, () -> userStore.find(email), user -> user.isPresent() ? 1 : 0);
+    }
+
+    /**
+     * Looks the user up like {@link #findUserByEmail} and returns it with its version. Lock-free: a read
+     * racing an update retries until it sees a user and version that belong together.
+     */
+    public Optional<VersionedUser> findVersionedUser(String email) {
+        return UserOperationEvent.record("findVersionedUser", email, () -> lookUpVersioned(email), user -> user.isPresent() ? 1 : 0);
+    }
+
+    private Optional<VersionedUser> lookUpVersioned(String email) {
+        UserEntry entry = userStore.entry(email);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        while (true) {
+            long entryVersion = entry.version;
+            if (entryVersion > 0) {
+                User user = userStore.get(entry);
+                if (user == null) {
+                    return Optional.empty();
+                }
+                if (entry.version == entryVersion) {
+                    return Optional.of(new VersionedUser(user, entryVersion));
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Users whose phone number matches {@code phoneNumber}, ignoring a leading '+'.
+     */
+    public List<User> findUsersByPhoneNumber(String phoneNumber) {
+        if (!phoneNumber.matches("\\+?[0-9]+")) {
+            throw new UserBadRequestException("Phone number must contain only digits and may start with '+'");
+        }
+        return UserOperationEvent.record("findUsersByPhoneNumber", phoneNumber,
+                () -> lookUpPhoneNumber(phoneNumber), List::size);
+    }
+
+    private List<User> lookUpPhoneNumber(String phoneNumber) {
+        long key = PhoneIndex.pack(phoneNumber);
+        if (key != 0) {
+            return phoneIndex.find(key).stream()
+                    .map(userStore::get)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+        }
+        String digits = phoneNumber.startsWith("+") ? phoneNumber.substring(1) : phoneNumber;
+        return userStore.users()
+                .filter(user -> user.getPhoneNumber() != null &&
+                        (user.getPhoneNumber().equals(digits) || user.getPhoneNumber().equals("+" + digits)))
+                .collect(toList());
     }
 
     public void updateUserByEmail(String email, User updatedUser) {
-        Optional<User> optionalUser = findUserByEmail(email);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
+        updateUserByEmail(email, updatedUser, null);
+    }
 
-            if (!user.getEmail().equals(updatedUser.getEmail())) {
-                if (findUserByEmail(updatedUser.getEmail()).isPresent()) {
+    /**
+     * Replaces the user with a copy of {@code updatedUser} and returns the new version, checking
+     * {@code expectedVersion} like {@link #updateUser(String, Map, Long)}.
+     */
+    public long updateUserByEmail(String email, User updatedUser, Long expectedVersion) {
+        return execute("updateUserByEmail", email, () -> doUpdateUserByEmail(email, updatedUser, expectedVersion));
+    }
+
+    public CompletableFuture<Void> updateUserByEmailAsync(String email, User updatedUser) {
+        return submit("updateUserByEmail", email, () -> {
+            doUpdateUserByEmail(email, updatedUser, null);
+            return null;
+        });
+    }
+
+    private long doUpdateUserByEmail(String email, User updatedUser, Long expectedVersion) {
+        checkWritable();
+        UserEntry entry = userStore.entry(email);
+        if (entry != null) {
+            checkVersion(entry, expectedVersion);
+            if (!entry.key.matches(updatedUser.getEmail())) {
+                if (userStore.contains(updatedUser.getEmail())) {
                     throw new UserBadRequestException("User with email " + updatedUser.getEmail() + " already exists.");
                 }
             }
@@ -139,23 +391,78 @@ public class UserService {
                 throw new UserBadRequestException("User must be at least " + minAge + " years old.");
             }
 
-            BeanUtils.copyProperties(updatedUser, user);
-            users.set(users.indexOf(user), user);
+            User current = userStore.pin(entry);
+            boolean replaced = false;
+            try {
+                User updated = updatedUser.toBuilder().build();
+                long newVersion = replace(entry, current, updated);
+                replaced = true;
+                replicationLog.append(MutationType.UPDATE, email, updated);
+                return newVersion;
+            } finally {
+                userStore.unpin(entry, replaced);
+            }
         } else {
             throw new UserNotFoundException("User with email " + email + " not found");
         }
     }
 
     public void delete(String email) {
-        Optional<User> optionalUser = findUserByEmail(email);
-        if (optionalUser.isPresent()) {
-            users.remove(optionalUser.get());
+        execute("delete", email, () -> doDelete(email));
+    }
+
+    public CompletableFuture<Void> deleteAsync(String email) {
+        return submit("delete", email, () -> doDelete(email));
+    }
+
+    private Void doDelete(String email) {
+        checkWritable();
+        UserEntry entry = userStore.entry(email);
+        if (entry != null) {
+            remove(entry);
+            replicationLog.append(MutationType.DELETE, email, null);
         } else {
             throw new UserNotFoundException("User with email " + email + " not found");
         }
+        return null;
     }
 
     public List<User> getUsersByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return UserOperationEvent.record("getUsersByBirthDateRange", fromDate + ".." + toDate,
+                () -> streamUsersByBirthDateRange(fromDate, toDate).collect(toList()), List::size);
+    }
+
+    /**
+     * Validates the range eagerly and returns a lazy stream over the matching users,
+     * so callers that emit results one by one never materialize the whole list.
+     * The range is checked on the resident birth dates, so only matching cold users are read from disk.
+     */
+    public Stream<User> streamUsersByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        validateBirthDateRange(fromDate, toDate);
+
+        return userStore.entries().stream()
+                .filter(entry -> entry.birthDate.isAfter(fromDate.minusDays(1)) &&
+                        entry.birthDate.isBefore(toDate.plusDays(1)))
+                .map(userStore::read)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Counts users born in the range without touching user objects, with the same validation
+     * as {@link #getUsersByBirthDateRange}.
+     */
+    public long countUsersByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return UserOperationEvent.record("countUsersByBirthDateRange", fromDate + ".." + toDate, () -> {
+            validateBirthDateRange(fromDate, toDate);
+            return birthDateHistogram.count(fromDate, toDate);
+        }, count -> count);
+    }
+
+    public Map<Integer, Long> getBirthYearHistogram() {
+        return birthDateHistogram.countByYear();
+    }
+
+    private void validateBirthDateRange(LocalDate fromDate, LocalDate toDate) {
         LocalDate currentDate = LocalDate.now();
         if (fromDate.isAfter(currentDate) || toDate.isAfter(currentDate ) || fromDate.equals(currentDate) || toDate.equals(currentDate)) {
             throw new UserIllegalArgumentException("Values must be earlier than current date");
@@ -164,11 +471,179 @@ public class UserService {
         if (fromDate.isAfter(toDate)) {
             throw new UserIllegalArgumentException("'From' date must be less than 'To' date");
         }
+    }
 
-        return users.stream()
-                .filter(user -> user.getBirthDate().isAfter(fromDate.minusDays(1)) &&
-                        user.getBirthDate().isBefore(toDate.plusDays(1)))
-                .collect(toList());
+    /**
+     * Removes every user, logging a delete for each so followers stay in step.
+     */
+    public void deleteAll() {
+        execute("deleteAll", null, this::doDeleteAll);
+    }
+
+    private Void doDeleteAll() {
+        checkWritable();
+        for (UserEntry entry : userStore.entries()) {
+            replicationLog.append(MutationType.DELETE, entry.key.toString(), null);
+        }
+        userStore.clear();
+        birthDateHistogram.clear();
+        phoneIndex.clear();
+        version++;
+        return null;
+    }
+
+    /**
+     * Hands {@code reader} the store version and users while mutations are held off, so the
+     * users it sees are exactly the state at that version.
+     */
+    public synchronized void readSnapshot(SnapshotReader reader) throws IOException {
+        reader.read(version, userStore.view());
+    }
+
+    @FunctionalInterface
+    public interface SnapshotReader {
+        void read(long version, List<User> users) throws IOException;
+    }
+
+    public synchronized ReplicationSnapshot snapshot() {
+        List<User> copies = new ArrayList<>(userStore.size());
+        userStore.users().forEach(user -> copies.add(user.toBuilder().build()));
+        return new ReplicationSnapshot(replicationLog.epoch(), replicationLog.lastSequence(), copies);
+    }
+
+    public synchronized void installSnapshot(List<User> snapshot) {
+        userStore.clear();
+        birthDateHistogram.clear();
+        phoneIndex.clear();
+        for (User user : snapshot) {
+            add(user);
+        }
+        version++;
+    }
+
+    public synchronized void applyReplicated(Mutation mutation) {
+        UserEntry entry = userStore.entry(mutation.email());
+        switch (mutation.type()) {
+            case CREATE:
+                if (entry != null) {
+                    remove(entry);
+                }
+                add(mutation.user());
+                break;
+            case UPDATE:
+                if (entry != null) {
+                    User current = userStore.pin(entry);
+                    try {
+                        replace(entry, current, mutation.user().toBuilder().build());
+                    } finally {
+                        userStore.unpin(entry, true);
+                    }
+                }
+                break;
+            case DELETE:
+                if (entry != null) {
+                    remove(entry);
+                }
+                break;
+        }
+    }
+
+    private void add(User user) {
+        birthDateHistogram.add(user.getBirthDate());
+        UserEntry entry;
+        try {
+            entry = userStore.add(user);
+        } catch (RuntimeException e) {
+            birthDateHistogram.remove(user.getBirthDate());
+            throw e;
+        }
+        phoneIndex.add(user.getPhoneNumber(), entry);
+        entry.version = ++version;
+    }
+
+    /**
+     * Swaps {@code updated} in for {@code current} under a new version and returns it. {@code current}
+     * itself is left as it was, so lists and responses holding it stay consistent; readers of the entry
+     * see the version negated while the swap is in progress.
+     */
+    private long replace(UserEntry entry, User current, User updated) {
+        birthDateHistogram.move(current.getBirthDate(), updated.getBirthDate());
+        phoneIndex.move(current.getPhoneNumber(), updated.getPhoneNumber(), entry);
+        if (!entry.key.matches(updated.getEmail())) {
+            userStore.rekey(entry, updated.getEmail());
+        }
+        long newVersion = ++version;
+        entry.version = -newVersion;
+        userStore.replace(entry, updated);
+        entry.version = newVersion;
+        return newVersion;
+    }
+
+    /**
+     * Runs inside the mutation, so no other write can slip in between the check and the swap.
+     */
+    private void checkVersion(UserEntry entry, Long expectedVersion) {
+        if (expectedVersion != null && entry.version != expectedVersion) {
+            throw new UserPreconditionFailedException("User with email " + entry.key + " was modified, current version is "
+                    + entry.version);
+        }
+    }
+
+    private void remove(UserEntry entry) {
+        User user = userStore.read(entry);
+        userStore.remove(entry);
+        birthDateHistogram.remove(entry.birthDate);
+        if (user != null) {
+            phoneIndex.remove(user.getPhoneNumber(), entry);
+            user.invalidateJsonFragment();
+        }
+        version++;
+    }
+
+    private <T> T execute(String operation, String key, Supplier<T> mutation) {
+        return execute(operation, key, mutation, result -> 1);
+    }
+
+    /**
+     * Applies {@code mutation} in the configured write mode and records it as a {@link UserOperationEvent}.
+     */
+    private <T> T execute(String operation, String key, Supplier<T> mutation, ToLongFunction<? super T> resultSize) {
+        return UserOperationEvent.record(operation, key, () -> apply(mutation), resultSize);
+    }
+
+    private <T> T apply(Supplier<T> mutation) {
+        if (mutationPipeline == null) {
+            synchronized (this) {
+                return mutation.get();
+            }
+        }
+        try {
+            return mutationPipeline.submit(mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, String key, Supplier<T> mutation) {
+        return UserOperationEvent.recordAsync(operation, key, () -> {
+            if (mutationPipeline == null) {
+                try {
+                    return CompletableFuture.completedFuture(apply(mutation));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            return mutationPipeline.submit(mutation);
+        });
+    }
+
+    private void checkWritable() {
+        if ("follower".equalsIgnoreCase(replicationRole)) {
+            throw new UserReadOnlyException("This instance is a read-only replica, send writes to the leader");
+        }
     }
 
 }
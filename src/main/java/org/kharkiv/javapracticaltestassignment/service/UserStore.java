@@ -0,0 +1,561 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.kharkiv.javapracticaltestassignment.model.EmailKey;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Storage of users in insertion order with a resident email index and a bounded hot set.
+ * Emails are looked up by their {@link EmailKey}, so they match regardless of the domain's case.
+ * <p>
+ * With {@code storage.hot-capacity} above zero, at most that many {@link User} objects are kept on heap.
+ * Colder users are written to an append-only segment file and only their {@link UserEntry} stays resident,
+ * so a lookup by email is still O(1) and costs at most one positional disk read. Victims are chosen by a
+ * clock over the hot set that halves an entry's access count on every pass and evicts it once the count
+ * reaches zero. Point lookups and updates promote a cold user; scans read cold users without promoting them.
+ * <p>
+ * Users are never modified in place. An update {@link #pin}s the entry so it cannot be evicted while
+ * {@link #replace} swaps in the new copy, and {@link #unpin} then drops the stale disk copy. An add whose
+ * eviction fails to spill is rolled back, so the store never keeps a half-added entry.
+ * <p>
+ * {@link #contains} asks an {@link EmailBloomFilter} first, so checking a new email usually never
+ * touches the index. The filter follows every add, remove and rekey and doubles when it fills up.
+ * It is probed without the store's lock, so a check never waits behind a cold write or a compaction.
+ */
+@Slf4j
+@Component
+public class UserStore {
+
+    private static final long COMPACTION_THRESHOLD_BYTES = 64L << 20;
+
+    private static final int INITIAL_FILTER_CAPACITY = 1024;
+
+    private final ConcurrentSkipListMap<Long, UserEntry> entriesBySequence = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<EmailKey, UserEntry> entriesByEmail = new ConcurrentHashMap<>();
+
+    private final ArrayDeque<UserEntry> clock = new ArrayDeque<>();
+
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    private final LongAdder filteredChecks = new LongAdder();
+
+    private final LongAdder falsePositiveChecks = new LongAdder();
+
+    private volatile EmailBloomFilter emailFilter = new EmailBloomFilter(INITIAL_FILTER_CAPACITY);
+
+    private final int hotCapacity;
+
+    private final Path segmentPath;
+
+    private FileChannel segment;
+
+    private long segmentEnd;
+
+    private long liveColdBytes;
+
+    private long nextSequence;
+
+    private int hotCount;
+
+    private int removedInClock;
+
+    public UserStore(@Value("${storage.hot-capacity}") int hotCapacity,
+                     @Value("${storage.segment-file}") String segmentFile) {
+        this.hotCapacity = hotCapacity;
+        this.segmentPath = Path.of(segmentFile);
+    }
+
+    public int size() {
+        return entriesByEmail.size();
+    }
+
+    public synchronized int hotCount() {
+        return hotCount;
+    }
+
+    UserEntry entry(String email) {
+        return email == null ? null : entriesByEmail.get(EmailKey.of(email));
+    }
+
+    /**
+     * Whether a user with {@code email} exists. Most absent emails are answered by the filter alone.
+     */
+    public boolean contains(String email) {
+        if (email == null) {
+            return false;
+        }
+        EmailKey key = EmailKey.of(email);
+        if (!emailFilter.mightContain(key)) {
+            filteredChecks.increment();
+            return false;
+        }
+        if (entriesByEmail.containsKey(key)) {
+            return true;
+        }
+        falsePositiveChecks.increment();
+        return false;
+    }
+
+    /**
+     * Share of absent emails the filter let through to the index so far.
+     */
+    public double observedFalsePositiveRate() {
+        long falsePositives = falsePositiveChecks.sum();
+        long absent = falsePositives + filteredChecks.sum();
+        return absent == 0 ? 0 : (double) falsePositives / absent;
+    }
+
+    public synchronized double estimatedFalsePositiveRate() {
+        return emailFilter.estimatedFalsePositiveRate();
+    }
+
+    Collection<UserEntry> entries() {
+        return entriesBySequence.values();
+    }
+
+    /**
+     * Looks a user up by email, promoting it to the hot set if it was cold.
+     */
+    public Optional<User> find(String email) {
+        UserEntry entry = entry(email);
+        return entry == null ? Optional.empty() : Optional.ofNullable(get(entry));
+    }
+
+    /**
+     * Returns the entry's user, promoting it to the hot set if it was cold.
+     */
+    User get(UserEntry entry) {
+        entry.hits++;
+        User user = entry.user;
+        if (user != null) {
+            return user;
+        }
+        synchronized (this) {
+            return promote(entry);
+        }
+    }
+
+    /**
+     * Returns the entry's user without changing its residency, reading the cold copy if needed.
+     * Returns null if the entry was removed and its disk copy is already gone.
+     */
+    User read(UserEntry entry) {
+        User user = entry.user;
+        return user != null ? user : readCold(entry);
+    }
+
+    /**
+     * Users in insertion order, cold ones read from disk without promotion.
+     */
+    public Stream<User> users() {
+        return entries().stream().map(this::read).filter(Objects::nonNull);
+    }
+
+    /**
+     * Read-only live list view over {@link #users()}. Positional access walks the list.
+     */
+    public List<User> view() {
+        return new AbstractList<>() {
+            @Override
+            public User get(int index) {
+                Iterator<User> iterator = iterator();
+                for (int i = 0; i < index && iterator.hasNext(); i++) {
+                    iterator.next();
+                }
+                if (index < 0 || !iterator.hasNext()) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return iterator.next();
+            }
+
+            @Override
+            public Iterator<User> iterator() {
+                return users().iterator();
+            }
+
+            @Override
+            public int size() {
+                return UserStore.this.size();
+            }
+        };
+    }
+
+    synchronized UserEntry add(User user) {
+        UserEntry entry = new UserEntry(nextSequence++, user);
+        entriesBySequence.put(entry.sequence, entry);
+        entriesByEmail.put(entry.key, entry);
+        addToFilter(entry.key);
+        if (hotCapacity > 0) {
+            clock.addLast(entry);
+        }
+        hotCount++;
+        try {
+            evictIfNeeded();
+        } catch (RuntimeException e) {
+            remove(entry);
+            throw e;
+        }
+        return entry;
+    }
+
+    synchronized void remove(UserEntry entry) {
+        entriesBySequence.remove(entry.sequence);
+        entriesByEmail.remove(entry.key, entry);
+        emailFilter.remove(entry.key);
+        entry.removed = true;
+        if (entry.user != null) {
+            entry.user = null;
+            hotCount--;
+            if (hotCapacity > 0 && ++removedInClock > clock.size() / 2) {
+                clock.removeIf(removed -> removed.removed);
+                removedInClock = 0;
+            }
+        }
+        dropColdCopy(entry);
+    }
+
+    synchronized void rekey(UserEntry entry, String newEmail) {
+        entriesByEmail.remove(entry.key, entry);
+        emailFilter.remove(entry.key);
+        entry.key = EmailKey.of(newEmail);
+        entriesByEmail.put(entry.key, entry);
+        addToFilter(entry.key);
+    }
+
+    synchronized void clear() {
+        segmentLock.writeLock().lock();
+        try {
+            for (UserEntry entry : entriesBySequence.values()) {
+                entry.removed = true;
+                entry.user = null;
+                entry.coldCopy = null;
+            }
+            entriesBySequence.clear();
+            entriesByEmail.clear();
+            clock.clear();
+            emailFilter = new EmailBloomFilter(INITIAL_FILTER_CAPACITY);
+            hotCount = 0;
+            removedInClock = 0;
+            liveColdBytes = 0;
+            segmentEnd = 0;
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of entries on the eviction clock, including removed ones not yet swept.
+     */
+    synchronized int clockSize() {
+        return clock.size();
+    }
+
+    /**
+     * Promotes the entry and protects it from eviction until {@link #unpin}.
+     */
+    synchronized User pin(UserEntry entry) {
+        entry.hits++;
+        User user = promote(entry);
+        entry.pins++;
+        return user;
+    }
+
+    /**
+     * Swaps in a new user for a pinned entry. {@link #unpin} it as modified to drop the stale disk copy.
+     */
+    synchronized void replace(UserEntry entry, User user) {
+        entry.user = user;
+    }
+
+    /**
+     * Releases a pin taken by {@link #pin}; a modified user loses its now stale disk copy.
+     */
+    synchronized void unpin(UserEntry entry, boolean modified) {
+        entry.pins--;
+        if (modified && entry.user != null) {
+            entry.birthDate = entry.user.getBirthDate();
+            dropColdCopy(entry);
+        }
+        evictIfNeeded();
+    }
+
+    private void addToFilter(EmailKey key) {
+        emailFilter.add(key);
+        if (emailFilter.isFull()) {
+            EmailBloomFilter grown = new EmailBloomFilter(emailFilter.capacity() * 2);
+            for (EmailKey existing : entriesByEmail.keySet()) {
+                grown.add(existing);
+            }
+            emailFilter = grown;
+        }
+    }
+
+    private User promote(UserEntry entry) {
+        User user = entry.user;
+        if (user != null || entry.removed) {
+            return user;
+        }
+        user = readCold(entry);
+        entry.user = user;
+        clock.addLast(entry);
+        hotCount++;
+        evictIfNeeded();
+        return user;
+    }
+
+    private void evictIfNeeded() {
+        if (hotCapacity <= 0) {
+            return;
+        }
+        int skippedPinned = 0;
+        while (hotCount > hotCapacity && skippedPinned < clock.size()) {
+            UserEntry entry = clock.pollFirst();
+            if (entry == null) {
+                return;
+            }
+            if (entry.removed) {
+                removedInClock--;
+                continue;
+            }
+            if (entry.user == null) {
+                continue;
+            }
+            if (entry.pins > 0) {
+                clock.addLast(entry);
+                skippedPinned++;
+                continue;
+            }
+            if (entry.hits > 0) {
+                entry.hits >>= 1;
+                clock.addLast(entry);
+                continue;
+            }
+            if (entry.coldCopy == null) {
+                try {
+                    entry.coldCopy = writeCold(entry.user);
+                } catch (RuntimeException e) {
+                    clock.addFirst(entry);
+                    throw e;
+                }
+                liveColdBytes += entry.coldCopy.length();
+            }
+            entry.user = null;
+            hotCount--;
+        }
+    }
+
+    private void dropColdCopy(UserEntry entry) {
+        if (entry.coldCopy != null) {
+            liveColdBytes -= entry.coldCopy.length();
+            entry.coldCopy = null;
+        }
+        if (segmentEnd > COMPACTION_THRESHOLD_BYTES && liveColdBytes * 2 < segmentEnd) {
+            compact();
+        }
+    }
+
+    private UserEntry.ColdCopy writeCold(User user) {
+        byte[] record = encode(user);
+        try {
+            if (segment == null) {
+                segment = openSegment(true);
+            }
+            long offset = segmentEnd;
+            writeFully(segment, ByteBuffer.wrap(record), offset);
+            segmentEnd += record.length;
+            return new UserEntry.ColdCopy(offset, record.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill user to " + segmentPath, e);
+        }
+    }
+
+    /**
+     * Opens the segment under an exclusive lock, so a second store configured with the same file fails
+     * instead of overwriting the first one's records.
+     */
+    private FileChannel openSegment(boolean truncate) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException(segmentPath + " is in use by another store");
+            }
+            if (truncate) {
+                channel.truncate(0);
+            }
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private User readCold(UserEntry entry) {
+        segmentLock.readLock().lock();
+        try {
+            UserEntry.ColdCopy coldCopy = entry.coldCopy;
+            if (coldCopy == null) {
+                return entry.user;
+            }
+            return decode(readFully(segment, coldCopy));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read user from " + segmentPath, e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the segment with only the live cold records once more than half of it is garbage.
+     */
+    private void compact() {
+        Path compactedPath = segmentPath.resolveSibling(segmentPath.getFileName() + ".compact");
+        segmentLock.writeLock().lock();
+        try (FileChannel compacted = FileChannel.open(compactedPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long end = 0;
+            for (UserEntry entry : entriesBySequence.values()) {
+                UserEntry.ColdCopy coldCopy = entry.coldCopy;
+                if (coldCopy == null) {
+                    continue;
+                }
+                writeFully(compacted, ByteBuffer.wrap(readFully(segment, coldCopy)), end);
+                entry.coldCopy = new UserEntry.ColdCopy(end, coldCopy.length());
+                end += coldCopy.length();
+            }
+            segment.close();
+            Files.move(compactedPath, segmentPath, StandardCopyOption.REPLACE_EXISTING);
+            segment = openSegment(false);
+            log.info("Compacted user segment from {} to {} bytes", segmentEnd, end);
+            segmentEnd = end;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact " + segmentPath, e);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an empty store with the same hot capacity and its own segment file next to this one's.
+     */
+    UserStore newScratchInstance() {
+        return new UserStore(hotCapacity, segmentPath + ".scratch");
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            Files.deleteIfExists(segmentPath);
+        }
+    }
+
+    private static byte[] readFully(FileChannel channel, UserEntry.ColdCopy coldCopy) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(coldCopy.length());
+        long position = coldCopy.offset();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment");
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] encode(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, user.getEmail());
+            writeString(out, user.getFirstName());
+            writeString(out, user.getLastName());
+            out.writeBoolean(user.getBirthDate() != null);
+            if (user.getBirthDate() != null) {
+                out.writeLong(user.getBirthDate().toEpochDay());
+            }
+            writeString(out, user.getAddress());
+            writeString(out, user.getPhoneNumber());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static User decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        return User.builder()
+                .email(readString(in))
+                .firstName(readString(in))
+                .lastName(readString(in))
+                .birthDate(in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null)
+                .address(readString(in))
+                .phoneNumber(readString(in))
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
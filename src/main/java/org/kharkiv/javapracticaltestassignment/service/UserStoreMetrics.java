@@ -0,0 +1,37 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link UserStore} gauges, e.g. {@code /actuator/metrics/users.email.filter.false.positive.rate}.
+ */
+@Component
+public class UserStoreMetrics implements MeterBinder {
+
+    private final UserStore userStore;
+
+    public UserStoreMetrics(UserStore userStore) {
+        this.userStore = userStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.email.filter.false.positive.rate", userStore, UserStore::observedFalsePositiveRate)
+                .description("Share of absent emails the Bloom filter passed on to the index")
+                .tag("kind", "observed")
+                .register(registry);
+        Gauge.builder("users.email.filter.false.positive.rate", userStore, UserStore::estimatedFalsePositiveRate)
+                .description("False-positive rate expected from the current Bloom filter fill")
+                .tag("kind", "estimated")
+                .register(registry);
+        Gauge.builder("users.store.size", userStore, UserStore::size)
+                .description("Number of stored users")
+                .register(registry);
+        Gauge.builder("users.store.hot", userStore, UserStore::hotCount)
+                .description("Number of users kept on heap")
+                .register(registry);
+    }
+}
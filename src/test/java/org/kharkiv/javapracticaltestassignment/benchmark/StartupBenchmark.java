@@ -0,0 +1,91 @@
+package org.kharkiv.javapracticaltestassignment.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application several times and reports the startup time Spring logs and the time from
+ * process start to the first successful {@code GET /users}.
+ * <p>
+ * Arguments: number of runs followed by the command that starts the application on port 8080, e.g.
+ * {@code 5 java -jar target/JavaPracticalTestAssignment-0.0.1-SNAPSHOT.jar} for the regular build or
+ * {@code 5 java -XX:SharedArchiveFile=target/app.jsa -Dspring.aot.enabled=true -jar target/JavaPracticalTestAssignment-0.0.1-SNAPSHOT.jar}
+ * after {@code mvn -Pfast-startup package}.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        List<String> command = Arrays.asList(args).subList(1, args.length);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:8080/users")).build();
+
+        List<Double> started = new ArrayList<>();
+        List<Double> firstRequest = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            CompletableFuture<Double> startedSeconds = new CompletableFuture<>();
+            Thread.ofVirtual().start(() -> readStartedSeconds(process, startedSeconds));
+            try {
+                while (!isUp(client, request)) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException("Application exited with " + process.exitValue());
+                    }
+                    Thread.sleep(5);
+                }
+                firstRequest.add((System.nanoTime() - start) / 1e9);
+                started.add(startedSeconds.get());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+            System.out.printf("run %d: started in %.2f s, first request after %.2f s%n",
+                    run + 1, started.get(run), firstRequest.get(run));
+        }
+        System.out.printf("mean: started in %.2f s, first request after %.2f s%n",
+                started.stream().mapToDouble(Double::doubleValue).average().orElse(0),
+                firstRequest.stream().mapToDouble(Double::doubleValue).average().orElse(0));
+    }
+
+    private static boolean isUp(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Completes {@code startedSeconds} from Spring's startup line and keeps draining the output afterwards.
+     */
+    private static void readStartedSeconds(Process process, CompletableFuture<Double> startedSeconds) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    startedSeconds.complete(Double.parseDouble(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            // the process was destroyed
+        } finally {
+            startedSeconds.complete(Double.NaN);
+        }
+    }
+}
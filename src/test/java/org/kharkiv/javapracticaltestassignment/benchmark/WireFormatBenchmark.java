@@ -0,0 +1,78 @@
+package org.kharkiv.javapracticaltestassignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares payload size and encode/decode throughput of JSON and CBOR for realistic user lists.
+ * Not a unit test; run {@link #main} from the IDE or with {@code java -cp} over the test classpath.
+ * The optional argument is the number of users to encode (10 000 by default).
+ */
+public class WireFormatBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        List<User> users = generateUsers(userCount);
+
+        ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules()
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        System.out.printf("%d users%n", userCount);
+        run("json", json, users);
+        run("cbor", cbor, users);
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<User> users) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(users);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.writeValueAsBytes(users);
+            mapper.readValue(payload, User[].class);
+        }
+
+        long encodeStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            payload = mapper.writeValueAsBytes(users);
+        }
+        long encodeNanos = System.nanoTime() - encodeStart;
+
+        long decodeStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.readValue(payload, User[].class);
+        }
+        long decodeNanos = System.nanoTime() - decodeStart;
+
+        double usersPerRound = users.size();
+        System.out.printf("%-5s size=%,d bytes (%.1f B/user) encode=%,.0f users/s decode=%,.0f users/s%n",
+                name, payload.length, payload.length / usersPerRound,
+                usersPerRound * MEASURED_ROUNDS / (encodeNanos / 1e9),
+                usersPerRound * MEASURED_ROUNDS / (decodeNanos / 1e9));
+    }
+
+    static List<User> generateUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .email("user" + i + "@example.com")
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .birthDate(LocalDate.of(1950 + i % 50, 1 + i % 12, 1 + i % 28))
+                    .address(i + " Sumska Street, Kharkiv, 61000, Ukraine")
+                    .phoneNumber("+380" + (500000000 + i))
+                    .build());
+        }
+        return users;
+    }
+
+}
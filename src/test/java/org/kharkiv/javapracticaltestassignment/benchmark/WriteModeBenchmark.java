@@ -0,0 +1,86 @@
+package org.kharkiv.javapracticaltestassignment.benchmark;
+
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.replication.ReplicationLog;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.kharkiv.javapracticaltestassignment.service.UserStore;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mixed read/write throughput of {@link UserService} in {@code locked} and {@code single-writer} mode.
+ * Not a unit test; run {@link #main} with optional arguments: threads, seconds, read percentage.
+ */
+public class WriteModeBenchmark {
+
+    private static final int KEYS_PER_THREAD = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int readPercent = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        System.out.printf("%d threads, %d s, %d%% reads%n", threads, seconds, readPercent);
+        for (String mode : new String[]{"locked", "single-writer", "locked", "single-writer"}) {
+            run(mode, threads, seconds, readPercent);
+        }
+    }
+
+    private static void run(String mode, int threads, int seconds, int readPercent) throws InterruptedException {
+        UserService userService = new UserService(new ReplicationLog(100_000), new UserStore(0, "unused.seg"));
+        ReflectionTestUtils.setField(userService, "minAge", 18);
+        ReflectionTestUtils.setField(userService, "replicationRole", "leader");
+        ReflectionTestUtils.setField(userService, "writeMode", mode);
+        ReflectionTestUtils.setField(userService, "ringCapacity", 65536);
+        ReflectionTestUtils.setField(userService, "writeBatchSize", 256);
+        ReflectionTestUtils.invokeMethod(userService, "startMutationPipeline");
+
+        LongAdder operations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    String email = "user" + thread + "-" + random.nextInt(KEYS_PER_THREAD) + "@example.com";
+                    int dice = random.nextInt(100);
+                    try {
+                        if (dice < readPercent) {
+                            userService.findUserByEmail(email);
+                        } else if (userService.findUserByEmail(email).isEmpty()) {
+                            userService.create(User.builder()
+                                    .email(email)
+                                    .firstName("first")
+                                    .lastName("last")
+                                    .birthDate(LocalDate.of(1990, 1, 1))
+                                    .phoneNumber("+380" + random.nextInt(1_000_000))
+                                    .build());
+                        } else if (dice % 3 == 0) {
+                            userService.delete(email);
+                        } else {
+                            userService.updateUser(email, Map.of("firstName", "updated" + dice));
+                        }
+                    } catch (RuntimeException ignored) {
+                        // lost a race against another thread's write, still counts as an operation
+                    }
+                    count++;
+                }
+                operations.add(count);
+                done.countDown();
+            });
+            worker.start();
+        }
+        done.await();
+        ReflectionTestUtils.invokeMethod(userService, "stopMutationPipeline");
+
+        System.out.printf("%-13s %,12.0f ops/s%n", mode, operations.sum() / (double) seconds);
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void scansOnlyTakeTheirShareOfTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 0.5);
+
+        assertTrue(limiter.tryAcquire(true));
+        assertTrue(limiter.tryAcquire(true));
+        assertFalse(limiter.tryAcquire(true));
+        assertTrue(limiter.tryAcquire(false));
+        assertTrue(limiter.tryAcquire(false));
+        assertFalse(limiter.tryAcquire(false));
+        assertEquals(2, limiter.getRejected());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStableAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.5);
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, 10 * MILLIS);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, "limit: " + grown);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, 100 * MILLIS);
+        }
+        assertTrue(limiter.getLimit() < grown / 2, "limit: " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.5);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire(false));
+            limiter.release(MILLIS);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(false)) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
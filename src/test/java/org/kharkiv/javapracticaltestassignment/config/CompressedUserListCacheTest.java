@@ -0,0 +1,104 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.config.CompressedUserListCache.ContentEncoding;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"min.age=18", "compression.settle-ms=0", "compression.min-bytes=0"})
+class CompressedUserListCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService.deleteAll();
+        for (int i = 0; i < 20; i++) {
+            userService.create(User.builder()
+                    .email("user" + i + "@gmail.com")
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .birthDate(LocalDate.of(1990, 1, 1 + i))
+                    .build());
+        }
+    }
+
+    @Test
+    void negotiatePrefersGzipAndHonoursQualities() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("br, *;q=0.1"));
+        assertNull(ContentEncoding.negotiate("gzip;q=0, deflate;q=0"));
+        assertNull(ContentEncoding.negotiate("br, identity"));
+        assertNull(ContentEncoding.negotiate(null));
+    }
+
+    @Test
+    void servesSnapshotOfCurrentVersionOnly() throws Exception {
+        String plain = mockMvc.perform(get("/users")).andReturn().getResponse().getContentAsString();
+
+        MockHttpServletResponse gzip = awaitEncoded("gzip");
+        assertEquals(plain, new String(decode(new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray())))));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzip.getHeader(HttpHeaders.VARY));
+
+        MockHttpServletResponse deflate = awaitEncoded("deflate");
+        assertEquals(plain, new String(decode(new InflaterInputStream(new ByteArrayInputStream(deflate.getContentAsByteArray())))));
+
+        userService.delete("user0@gmail.com");
+        MockHttpServletResponse stale = mockMvc.perform(get("/users").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+        assertNull(stale.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertFalse(stale.getContentAsString().contains("user0@gmail.com"));
+
+        MockHttpServletResponse cbor = mockMvc.perform(get("/users")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andReturn().getResponse();
+        assertNull(cbor.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/cbor", cbor.getContentType());
+    }
+
+    private MockHttpServletResponse awaitEncoded(String encoding) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            MockHttpServletResponse response = mockMvc.perform(get("/users").header(HttpHeaders.ACCEPT_ENCODING, encoding))
+                    .andReturn().getResponse();
+            if (encoding.equals(response.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+                return response;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "no " + encoding + " snapshot built");
+            Thread.sleep(20);
+        }
+    }
+
+    private static byte[] decode(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
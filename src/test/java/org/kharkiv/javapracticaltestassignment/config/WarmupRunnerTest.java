@@ -0,0 +1,29 @@
+package org.kharkiv.javapracticaltestassignment.config;
+
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {"min.age=18", "warmup.enabled=true", "warmup.iterations=1000"})
+class WarmupRunnerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Test
+    void warmupLeavesRealUsersUntouchedAndEndsReady() {
+        assertTrue(userService.getAllUsers().isEmpty());
+        assertEquals(0, userService.getVersion());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+    }
+}
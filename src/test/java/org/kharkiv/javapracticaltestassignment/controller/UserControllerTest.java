@@ -1,31 +1,47 @@
 package org.kharkiv.javapracticaltestassignment.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
 import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.kharkiv.javapracticaltestassignment.exception.UserPreconditionFailedException;
 import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.model.VersionedUser;
+import org.kharkiv.javapracticaltestassignment.service.ReadCoalescer;
 import org.kharkiv.javapracticaltestassignment.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(UserController.class)
+@Import(ReadCoalescer.class)
+@TestPropertySource(properties = {"coalesce.window-ms=0"})
 class UserControllerTest {
 
     @Autowired
@@ -34,6 +50,9 @@ class UserControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
     @MockBean
     private UserService userService;
 
@@ -80,6 +99,98 @@ class UserControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
+    @Test
+    void createUserCborBodyReturnsCreatedStatus() throws Exception {
+        User user = getUser();
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+
+        mockMvc.perform(post("/users")
+                        .contentType("application/cbor")
+                        .content(cborMapper.writeValueAsBytes(user)))
+                .andExpect(status().isCreated());
+
+        verify(userService).create(argThat(created -> created.getEmail().equals(user.getEmail())
+                && created.getBirthDate().equals(user.getBirthDate())));
+    }
+
+    @Test
+    void getAllUsersAcceptCborReturnsCbor() throws Exception {
+        User user = getUser();
+        when(userService.getAllUsers()).thenReturn(Arrays.asList(user));
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+
+        byte[] body = mockMvc.perform(get("/users")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        User[] users = cborMapper.readValue(body, User[].class);
+        assertEquals(1, users.length);
+        assertEquals(user.getBirthDate(), users[0].getBirthDate());
+    }
+
+    @Test
+    void registersSingleCborConverter() {
+        List<HttpMessageConverter<?>> cborConverters = handlerAdapter.getMessageConverters().stream()
+                .filter(converter -> converter instanceof MappingJackson2CborHttpMessageConverter)
+                .toList();
+
+        assertEquals(1, cborConverters.size());
+        assertTrue(((MappingJackson2CborHttpMessageConverter) cborConverters.get(0)).getObjectMapper()
+                .isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Test
+    void getAllUsersWritesCachedFragmentsAsJsonArray() throws Exception {
+        User user1 = getUser();
+        User user2 = getUser();
+        user2.setEmail("other@gmail.com");
+        when(userService.getAllUsers()).thenReturn(Arrays.asList(user1, user2));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(Arrays.asList(user1, user2)), true));
+
+        user1.setFirstName("updated");
+
+        mockMvc.perform(get("/users"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName").value("updated"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].email").value("other@gmail.com"));
+    }
+
+    @Test
+    void getAllUsersWithFieldsReturnsOnlyRequestedFields() throws Exception {
+        User user = getUser();
+        when(userService.getAllUsers()).thenReturn(Arrays.asList(user));
+
+        mockMvc.perform(get("/users")
+                        .param("fields", "firstName,email"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("[{\"email\":\"dummy@gmail.com\",\"firstName\":\"dummy\"}]", true));
+    }
+
+    @Test
+    void getAllUsersWithUnknownFieldReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("fields", "email,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUsersByBirthDateRangeWithFieldsReturnsOnlyRequestedFields() throws Exception {
+        User user = getUser();
+        when(userService.getUsersByBirthDateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2005, 12, 31)))
+                .thenReturn(Arrays.asList(user));
+
+        mockMvc.perform(get("/users/")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "2005-12-31")
+                        .param("fields", "birthDate"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("[{\"birthDate\":\"2000-12-12\"}]", true));
+    }
+
     @Test
     void getAllUsersReturnsListOfUsers() throws Exception {
         User user = getUser();
@@ -96,14 +207,15 @@ class UserControllerTest {
         Map<String, String> updates = new HashMap<>();
         updates.put("firstName", "updated");
         updates.put("lastName", "updated");
-        doNothing().when(userService).updateUser(email, updates);
+        when(userService.updateUser(email, updates, null)).thenReturn(2L);
 
         mockMvc.perform(patch("/users/dummy@gmail.com")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"firstName\":\"updated\",\"lastName\":\"updated\"}"))
-                .andExpect(MockMvcResultMatchers.status().isNoContent());
+                .andExpect(MockMvcResultMatchers.status().isNoContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2\""));
 
-        verify(userService).updateUser(email, updates);
+        verify(userService).updateUser(email, updates, null);
     }
 
     @Test
@@ -111,7 +223,7 @@ class UserControllerTest {
         Map<String, String> updates = new HashMap<>();
         updates.put("firstName", "updated");
         updates.put("lastName", "updated");
-        doThrow(UserIllegalArgumentException.class).when(userService).updateUser("invalid-email", updates);
+        doThrow(UserIllegalArgumentException.class).when(userService).updateUser("invalid-email", updates, null);
 
         mockMvc.perform(patch("/users/invalid-email")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -129,12 +241,13 @@ class UserControllerTest {
                 .address("updated")
                 .phoneNumber("+30943443")
                 .build();
-        doNothing().when(userService).updateUserByEmail(user.getEmail(), user);
+        when(userService.updateUserByEmail(eq(user.getEmail()), any(User.class), eq(null))).thenReturn(3L);
 
         mockMvc.perform(put("/users/{email}", user.getEmail())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(user)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""));
     }
 
     @Test
@@ -147,7 +260,7 @@ class UserControllerTest {
                 .address("updated")
                 .phoneNumber("dummy")
                 .build();
-        doThrow(UserIllegalArgumentException.class).when(userService).updateUserByEmail(user.getEmail(), user);
+        doThrow(UserIllegalArgumentException.class).when(userService).updateUserByEmail(user.getEmail(), user, null);
 
         mockMvc.perform(put("/users/{email}", user.getEmail())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -167,7 +280,7 @@ class UserControllerTest {
                 .build();
         String email = "nonexistent@example.com";
 
-        doThrow(UserIllegalArgumentException.class).when(userService).updateUserByEmail(email, user);
+        doThrow(UserIllegalArgumentException.class).when(userService).updateUserByEmail(email, user, null);
 
         mockMvc.perform(put("/users/{email}", email)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -175,6 +288,66 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getUserReturnsVersionAsETag() throws Exception {
+        User user = getUser();
+        when(userService.findVersionedUser(user.getEmail())).thenReturn(Optional.of(new VersionedUser(user, 7)));
+
+        mockMvc.perform(get("/users/{email}", user.getEmail()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email").value(user.getEmail()));
+
+        mockMvc.perform(get("/users/{email}", user.getEmail()).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUserNonExistingUserReturnsNotFound() throws Exception {
+        when(userService.findVersionedUser("nonexistent@example.com")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/users/{email}", "nonexistent@example.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateUserPassesIfMatchVersionAndReturnsPreconditionFailedOnConflict() throws Exception {
+        Map<String, String> updates = Map.of("firstName", "updated");
+        when(userService.updateUser("dummy@gmail.com", updates, 4L))
+                .thenThrow(new UserPreconditionFailedException("modified"));
+
+        mockMvc.perform(patch("/users/dummy@gmail.com")
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"updated\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateUserWithWeakOrForeignIfMatchReturnsPreconditionFailed() throws Exception {
+        for (String ifMatch : List.of("W/\"4\"", "\"abc\"")) {
+            mockMvc.perform(patch("/users/dummy@gmail.com")
+                            .header(HttpHeaders.IF_MATCH, ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"firstName\":\"updated\"}"))
+                    .andExpect(status().isPreconditionFailed());
+        }
+        verify(userService, never()).updateUser(anyString(), anyMap(), any());
+    }
+
+    @Test
+    void updateUserByEmailWithWildcardIfMatchSkipsVersionCheck() throws Exception {
+        User user = getUser();
+        when(userService.updateUserByEmail(eq(user.getEmail()), any(User.class), eq(null))).thenReturn(5L);
+
+        mockMvc.perform(put("/users/{email}", user.getEmail())
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isNoContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
     @Test
     void deleteValidEmailReturnsNoContent() throws Exception {
         doNothing().when(userService).delete("dummy@dummy.com");
@@ -251,4 +424,34 @@ class UserControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @Test
+    void countUsersByBirthDateRangeReturnsCount() throws Exception {
+        when(userService.countUsersByBirthDateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1))).thenReturn(42L);
+
+        mockMvc.perform(get("/users/count")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "2000-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("42"));
+    }
+
+    @Test
+    void getBirthYearHistogramReturnsCountsPerYear() throws Exception {
+        when(userService.getBirthYearHistogram()).thenReturn(new TreeMap<>(Map.of(1990, 2L, 1992, 1L)));
+
+        mockMvc.perform(get("/users/histogram"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json("{\"1990\":2,\"1992\":1}", true));
+    }
+
+    @Test
+    void getUsersByPhoneNumberReturnsUsers() throws Exception {
+        User user = getUser();
+        when(userService.findUsersByPhoneNumber("+30943443")).thenReturn(List.of(user));
+
+        mockMvc.perform(get("/users/by-phone/{phone}", "+30943443"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email").value("dummy@gmail.com"));
+    }
+
+}
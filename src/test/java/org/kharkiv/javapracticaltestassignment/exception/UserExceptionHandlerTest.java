@@ -40,6 +40,28 @@ class UserExceptionHandlerTest {
         assertEquals("Invalid argument", ((UserException) responseEntity.getBody()).message());
     }
 
+    @Test
+    void handleUserReadOnlyException() {
+        UserReadOnlyException userReadOnlyException = new UserReadOnlyException("Read only");
+
+        ResponseEntity<Object> responseEntity = userExceptionHandler.handleUserReadOnlyException(userReadOnlyException);
+
+        assertEquals(HttpStatus.METHOD_NOT_ALLOWED, responseEntity.getStatusCode());
+        assertEquals("GET,HEAD,OPTIONS", responseEntity.getHeaders().getFirst("Allow"));
+        assertEquals("Read only", ((UserException) responseEntity.getBody()).message());
+    }
+
+    @Test
+    void handleUserOverloadedException() {
+        UserOverloadedException userOverloadedException = new UserOverloadedException("Overloaded", 2);
+
+        ResponseEntity<Object> responseEntity = userExceptionHandler.handleUserOverloadedException(userOverloadedException);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("2", responseEntity.getHeaders().getFirst("Retry-After"));
+        assertEquals("Overloaded", ((UserException) responseEntity.getBody()).message());
+    }
+
     @Test
     void handleException() {
         Exception exception = new Exception("Unexpected error");
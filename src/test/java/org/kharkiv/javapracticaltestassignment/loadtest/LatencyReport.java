@@ -0,0 +1,126 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response times per operation in microseconds, measured from when a request was due rather than when
+ * it was sent, so a server that falls behind is not hidden by the client waiting for it.
+ * <p>
+ * {@link #write} appends one line per operation to {@code summary.csv} in the report directory, which
+ * makes runs of different builds easy to compare, and saves the full histograms of the run as
+ * {@code <label>.hlog}, readable by the HdrHistogram tools.
+ */
+class LatencyReport {
+
+    private static final String CSV_HEADER = "label,operation,requests,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, Map<String, LongAdder>> statuses = new EnumMap<>(Operation.class);
+
+    private final Histogram all = new ConcurrentHistogram(3);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    void record(Operation operation, long responseNanos, String status) {
+        long micros = Math.max(1, responseNanos / 1_000);
+        histograms.get(operation).recordValue(micros);
+        all.recordValue(micros);
+        statuses.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%-7s %9s %7s %9s %9s %9s %9s %9s %9s  statuses%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() > 0) {
+                print(out, operation.name(), histogram, errors(operation), seconds, new TreeMap<>(statuses.get(operation)));
+            }
+        }
+        long errors = statuses.keySet().stream().mapToLong(this::errors).sum();
+        print(out, "ALL", all, errors, seconds, Map.of());
+    }
+
+    void write(Path directory, String label, double seconds, long startMillis) throws IOException {
+        Files.createDirectories(directory);
+        Path csv = directory.resolve("summary.csv");
+        boolean header = Files.notExists(csv);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                out.println(CSV_HEADER);
+            }
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = histograms.get(operation);
+                if (histogram.getTotalCount() > 0) {
+                    out.println(csvLine(label, operation.name(), histogram, errors(operation), seconds));
+                }
+            }
+            long errors = statuses.keySet().stream().mapToLong(this::errors).sum();
+            out.println(csvLine(label, "ALL", all, errors, seconds));
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(label + ".hlog")))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("label " + label + ", values in microseconds");
+            writer.outputStartTime(startMillis);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = histograms.get(operation);
+                if (histogram.getTotalCount() > 0) {
+                    histogram.setTag(operation.name());
+                    histogram.setStartTimeStamp(startMillis);
+                    histogram.setEndTimeStamp(startMillis + (long) (seconds * 1000));
+                    writer.outputIntervalHistogram(histogram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts responses with a 4xx or 5xx status and requests that got no response at all.
+     */
+    private long errors(Operation operation) {
+        return statuses.get(operation).entrySet().stream()
+                .filter(status -> !status.getKey().startsWith("2") && !status.getKey().startsWith("3"))
+                .mapToLong(status -> status.getValue().sum())
+                .sum();
+    }
+
+    private static void print(PrintStream out, String name, Histogram histogram, long errors, double seconds,
+                              Map<String, LongAdder> statuses) {
+        out.printf("%-7s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1000.0, statuses.isEmpty() ? "" : statuses);
+    }
+
+    private static String csvLine(String label, String name, Histogram histogram, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", label, name,
+                histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds, millis(histogram, 50),
+                millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
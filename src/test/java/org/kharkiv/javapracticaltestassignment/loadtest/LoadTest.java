@@ -0,0 +1,215 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: boots the packaged application on a free localhost port, drives it with a
+ * {@link MixWorkload constant-rate mix} or a {@link ReplayWorkload replayed request log} and reports
+ * HdrHistogram response times per operation through {@link LatencyReport}.
+ * <p>
+ * Requests are started when they are due, each on its own virtual thread, whether or not earlier ones
+ * have finished. Requests due during the warm-up are sent but not recorded. Run it with
+ * {@code mvn -Pload-test verify -DskipTests -Dload.args="--rate=500 --duration-seconds=120"}, which
+ * labels the run with the project version and build time, or directly with these options:
+ * <ul>
+ *     <li>{@code target}: base URL of an application that is already running; nothing is booted then</li>
+ *     <li>{@code app-jar}, {@code app-args}: the jar to boot and extra space-separated arguments for it</li>
+ *     <li>{@code rate} (200 per second), {@code warmup-seconds} (10), {@code duration-seconds} (60)</li>
+ *     <li>{@code users} (1000): users created before the run, for updates, deletes and reads to work on</li>
+ *     <li>{@code mix} ({@value LoadTestOptions#DEFAULT_MIX}) and {@code seed} (42)</li>
+ *     <li>{@code base-path} ({@code /users}): the users collection the mix is sent to, {@code /reactive/users}
+ *     for the reactive endpoints, which have no count or phone lookup</li>
+ *     <li>{@code replay}: a captured request log to replay instead of the mix, {@code speed} (1) to compress it</li>
+ *     <li>{@code report-dir} ({@code target/load-test}) and {@code label} (a timestamp)</li>
+ * </ul>
+ * A booted application's time to readiness is reported with the latencies. Two comparisons come up often:
+ * <ul>
+ *     <li>Admission control under overload: {@code --mix=range=20,phone=40,count=40 --users=20000 --rate=500}
+ *     as is and with {@code --app-args="--limiter.min-limit=100000 --limiter.initial-limit=100000
+ *     --limiter.max-limit=100000"}, a limit so high that it never rejects.</li>
+ *     <li>JIT warm-up: {@code --warmup-seconds=0 --duration-seconds=20} as is and with
+ *     {@code --app-args=--warmup.enabled=true}, so the first requests after readiness are recorded.</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final int PRELOAD_CONCURRENCY = 32;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Files.createDirectories(options.reportDir());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Process application = null;
+        String baseUrl = options.target();
+        long bootStart = System.nanoTime();
+        if (baseUrl == null) {
+            int port = freePort();
+            baseUrl = "http://localhost:" + port;
+            application = boot(options, port);
+        }
+        try {
+            awaitReady(client, baseUrl, application);
+            String readiness = application == null ? "" : String.format(", ready after %.2f s", (System.nanoTime() - bootStart) / 1e9);
+            run(client, baseUrl, options, readiness);
+        } finally {
+            if (application != null) {
+                application.destroy();
+                application.waitFor();
+            }
+        }
+    }
+
+    private static void run(HttpClient client, String baseUrl, LoadTestOptions options, String readiness) throws Exception {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        Workload workload;
+        if (options.replay() != null) {
+            workload = new ReplayWorkload(baseUrl, options.replay(), options.speed());
+        } else {
+            MixWorkload mix = new MixWorkload(baseUrl + options.basePath(), options.rate(),
+                    warmupNanos + TimeUnit.SECONDS.toNanos(options.durationSeconds()),
+                    MixWorkload.parseMix(options.mix()), options.seed());
+            preload(client, mix, options.users());
+            workload = mix;
+        }
+
+        LatencyReport report = new LatencyReport();
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long lastOffsetNanos = 0;
+        long maxLagNanos = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (PlannedRequest planned; (planned = workload.next()) != null; ) {
+                long due = start + planned.offsetNanos();
+                long delay = due - System.nanoTime();
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } else {
+                    maxLagNanos = Math.max(maxLagNanos, -delay);
+                }
+                boolean recorded = planned.offsetNanos() >= warmupNanos;
+                PlannedRequest request = planned;
+                executor.execute(() -> send(client, request, due, recorded ? report : null));
+                lastOffsetNanos = planned.offsetNanos();
+            }
+        } finally {
+            if (workload instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+
+        double seconds = Math.max(lastOffsetNanos - warmupNanos, 1_000_000) / 1e9;
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(text)) {
+            out.printf("label %s, %s%s, %.1f s recorded after %d s warm-up, scheduler fell behind by up to %.1f ms%n",
+                    options.label(), options.replay() != null ? "replay of " + options.replay()
+                            : "mix " + options.mix() + " on " + options.basePath() + " at " + options.rate()
+                            + "/s, seed " + options.seed(),
+                    readiness, seconds, options.warmupSeconds(), maxLagNanos / 1e6);
+            report.print(out, seconds);
+        }
+        System.out.print(text);
+        Files.write(options.reportDir().resolve(options.label() + ".txt"), text.toByteArray());
+        report.write(options.reportDir(), options.label(), seconds, startMillis);
+    }
+
+    private static void send(HttpClient client, PlannedRequest planned, long due, LatencyReport report) {
+        String status;
+        try {
+            int code = client.send(planned.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            status = String.valueOf(code);
+            if (code / 100 == 2 && planned.onSuccess() != null) {
+                planned.onSuccess().run();
+            }
+        } catch (IOException e) {
+            status = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (report != null) {
+            report.record(planned.operation(), System.nanoTime() - due, status);
+        }
+    }
+
+    /**
+     * Creates the initial users, a bounded number at a time, before the clock starts.
+     */
+    private static void preload(HttpClient client, MixWorkload workload, int users) throws InterruptedException {
+        Semaphore permits = new Semaphore(PRELOAD_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                PlannedRequest planned = workload.preload();
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        send(client, planned, System.nanoTime(), null);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private static Process boot(LoadTestOptions options, int port) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", options.appJar().toString(), "--server.port=" + port));
+        command.addAll(options.appArgs());
+        Path log = options.reportDir().resolve(options.label() + "-app.log");
+        System.out.printf("booting %s, output in %s%n", String.join(" ", command), log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitReady(HttpClient client, String baseUrl, Process application) throws InterruptedException {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            if (application != null && !application.isAlive()) {
+                throw new IllegalStateException("Application exited with " + application.exitValue());
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException(baseUrl + " did not become ready in " + READY_TIMEOUT);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
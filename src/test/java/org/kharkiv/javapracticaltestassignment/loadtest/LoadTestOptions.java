@@ -0,0 +1,46 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load test run, given as {@code --name=value} arguments. See {@link LoadTest} for the list.
+ */
+record LoadTestOptions(String target, String basePath, Path appJar, List<String> appArgs, double rate, long warmupSeconds,
+                       long durationSeconds, int users, String mix, long seed, Path replay, double speed,
+                       Path reportDir, String label) {
+
+    static final String DEFAULT_MIX = "post=10,patch=10,put=5,delete=5,list=2,range=68";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        String appArgs = values.getOrDefault("app-args", "");
+        String replay = values.get("replay");
+        return new LoadTestOptions(
+                values.get("target"),
+                values.getOrDefault("base-path", "/users"),
+                Path.of(values.getOrDefault("app-jar", "target/JavaPracticalTestAssignment-0.0.1-SNAPSHOT.jar")),
+                appArgs.isBlank() ? List.of() : Arrays.asList(appArgs.trim().split(" +")),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Long.parseLong(values.getOrDefault("warmup-seconds", "10")),
+                Long.parseLong(values.getOrDefault("duration-seconds", "60")),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                values.getOrDefault("mix", DEFAULT_MIX),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                replay == null || replay.isBlank() ? null : Path.of(replay),
+                Double.parseDouble(values.getOrDefault("speed", "1")),
+                Path.of(values.getOrDefault("report-dir", "target/load-test")),
+                values.getOrDefault("label", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+    }
+}
@@ -0,0 +1,141 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Open-model workload: requests are due at a constant rate for a fixed time, whatever the server does,
+ * and each one is drawn from a weighted mix of operations with a seeded random, so two runs with the
+ * same options send the same sequence.
+ * <p>
+ * Updates and deletes pick a user known to exist: preloaded ones and those whose create has succeeded.
+ * A deleted user is forgotten when its delete is planned, so it is not picked again.
+ */
+class MixWorkload implements Workload {
+
+    private final String usersUrl;
+
+    private final long intervalNanos;
+
+    private final long count;
+
+    private final EnumMap<Operation, Integer> weights;
+
+    private final int totalWeight;
+
+    private final Random random;
+
+    private final List<String> users = new ArrayList<>();
+
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+
+    private long planned;
+
+    private long nextUser;
+
+    MixWorkload(String usersUrl, double rate, long durationNanos, Map<Operation, Integer> weights, long seed) {
+        this.usersUrl = usersUrl;
+        this.intervalNanos = (long) (1_000_000_000L / rate);
+        this.count = durationNanos / intervalNanos;
+        this.weights = new EnumMap<>(weights);
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        this.random = new Random(seed);
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Mix has no operations");
+        }
+    }
+
+    /**
+     * Parses a mix such as {@code post=10,patch=10,put=5,delete=5,list=2,range=68}.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        EnumMap<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split("=");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got " + part);
+            }
+            Operation operation = Operation.valueOf(nameAndWeight[0].trim().toUpperCase(Locale.ROOT));
+            if (operation == Operation.OTHER) {
+                throw new IllegalArgumentException("OTHER can only be replayed");
+            }
+            weights.put(operation, Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the request creating the next user, to be sent before the run starts.
+     */
+    PlannedRequest preload() {
+        return create(0);
+    }
+
+    @Override
+    public PlannedRequest next() {
+        if (planned == count) {
+            return null;
+        }
+        long offsetNanos = planned++ * intervalNanos;
+        for (String email; (email = created.poll()) != null; ) {
+            users.add(email);
+        }
+        Operation operation = pick();
+        if (users.isEmpty() && (operation == Operation.PATCH || operation == Operation.PUT || operation == Operation.DELETE)) {
+            operation = Operation.POST;
+        }
+        long n = nextUser;
+        switch (operation) {
+            case POST:
+                return create(offsetNanos);
+            case PATCH:
+                return new PlannedRequest(offsetNanos, operation, Requests.patch(usersUrl, anyUser(), n), null);
+            case PUT:
+                return new PlannedRequest(offsetNanos, operation, Requests.put(usersUrl, anyUser(), n), null);
+            case DELETE:
+                String email = users.remove(random.nextInt(users.size()));
+                return new PlannedRequest(offsetNanos, operation, Requests.delete(usersUrl, email), null);
+            case LIST:
+                return new PlannedRequest(offsetNanos, operation, Requests.get(usersUrl), null);
+            case COUNT:
+                LocalDate countFrom = Requests.birthDate(random.nextInt(100_000));
+                HttpRequest count = Requests.count(usersUrl, countFrom, countFrom.plusYears(1 + random.nextInt(20)));
+                return new PlannedRequest(offsetNanos, operation, count, null);
+            case PHONE:
+                return new PlannedRequest(offsetNanos, operation, Requests.byPhone(usersUrl, random.nextLong(Math.max(1, n))), null);
+            default:
+                LocalDate fromDate = Requests.birthDate(random.nextInt(100_000));
+                HttpRequest range = Requests.range(usersUrl, fromDate, fromDate.plusYears(1 + random.nextInt(5)));
+                return new PlannedRequest(offsetNanos, Operation.RANGE, range, null);
+        }
+    }
+
+    private PlannedRequest create(long offsetNanos) {
+        long n = nextUser++;
+        String email = "load" + n + "@example.com";
+        return new PlannedRequest(offsetNanos, Operation.POST, Requests.create(usersUrl, email, n), () -> created.add(email));
+    }
+
+    private String anyUser() {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    private Operation pick() {
+        int dice = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            dice -= weight.getValue();
+            if (dice < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
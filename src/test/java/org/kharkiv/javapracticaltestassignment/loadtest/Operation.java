@@ -0,0 +1,58 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.net.URI;
+
+/**
+ * Request kinds a workload is made of. Latencies and statuses are reported per operation.
+ */
+enum Operation {
+    POST, PATCH, PUT, DELETE, LIST, RANGE, COUNT, PHONE, OTHER;
+
+    /**
+     * Returns the users collection {@code path} belongs to, {@code /users} or {@code /reactive/users},
+     * or null for any other path.
+     */
+    static String collection(String path) {
+        if (path.startsWith("/reactive/users")) {
+            return "/reactive/users";
+        }
+        return path.startsWith("/users") ? "/users" : null;
+    }
+
+    /**
+     * Classifies a captured request relative to its {@link #collection}: {@code GET /users} is a list,
+     * {@code GET /users/?fromDate=...} a range query, {@code GET /users/count} a count and
+     * {@code GET /users/by-phone/...} a phone lookup, and the same under {@code /reactive/users}; other
+     * reads and paths fall into {@link #OTHER}.
+     */
+    static Operation of(String method, URI uri) {
+        String collection = collection(uri.getPath());
+        if (collection == null) {
+            return OTHER;
+        }
+        String path = uri.getPath().substring(collection.length());
+        switch (method) {
+            case "POST":
+                return path.isEmpty() ? POST : OTHER;
+            case "PATCH":
+                return PATCH;
+            case "PUT":
+                return PUT;
+            case "DELETE":
+                return DELETE;
+            case "GET":
+                if (path.isEmpty()) {
+                    return LIST;
+                }
+                if (path.equals("/count")) {
+                    return COUNT;
+                }
+                if (path.startsWith("/by-phone/")) {
+                    return PHONE;
+                }
+                return path.equals("/") ? RANGE : OTHER;
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.net.http.HttpRequest;
+
+/**
+ * A request and the time it is due, relative to the start of the run. {@code onSuccess} runs after a
+ * 2xx response and lets a workload learn which users exist.
+ */
+record PlannedRequest(long offsetNanos, Operation operation, HttpRequest request, Runnable onSuccess) {
+}
@@ -0,0 +1,91 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a captured request log, keeping the original gaps between requests divided by {@code speed}.
+ * <p>
+ * Each line starts with the request time in epoch milliseconds, the method and the path with its query,
+ * separated by spaces; anything after that is ignored. That is what Tomcat's access log writes with
+ * {@code server.tomcat.accesslog.pattern=%{begin:msec}t %m %U%q}. Bodies are not logged, so they are
+ * rebuilt: a {@code POST} creates a new user, a {@code PUT} replaces the user in the path with generated
+ * values and a {@code PATCH} changes the first name. Requests outside {@code /users} and
+ * {@code /reactive/users} are skipped; rebuilt requests go to the collection they were captured from.
+ */
+class ReplayWorkload implements Workload, AutoCloseable {
+
+    private final String baseUrl;
+
+    private final double speed;
+
+    private final BufferedReader reader;
+
+    private long firstMillis = -1;
+
+    private long replayed;
+
+    ReplayWorkload(String baseUrl, Path log, double speed) throws IOException {
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        this.reader = Files.newBufferedReader(log);
+    }
+
+    @Override
+    public PlannedRequest next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split(" +");
+                if (fields.length < 3 || Operation.collection(fields[2]) == null) {
+                    continue;
+                }
+                long millis = Long.parseLong(fields[0]);
+                if (firstMillis < 0) {
+                    firstMillis = millis;
+                }
+                long offsetNanos = (long) ((millis - firstMillis) * 1_000_000 / speed);
+                return plan(offsetNanos, fields[1], fields[2]);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PlannedRequest plan(long offsetNanos, String method, String pathAndQuery) {
+        URI uri = URI.create(baseUrl + pathAndQuery);
+        Operation operation = Operation.of(method, uri);
+        String usersUrl = baseUrl + Operation.collection(uri.getPath());
+        long n = replayed++;
+        String email = pathAndQuery.substring(pathAndQuery.lastIndexOf('/') + 1);
+        HttpRequest request;
+        switch (operation) {
+            case POST:
+                request = Requests.create(usersUrl, "replay" + n + "@example.com", n);
+                break;
+            case PATCH:
+                request = Requests.patch(usersUrl, email, n);
+                break;
+            case PUT:
+                request = Requests.put(usersUrl, email, n);
+                break;
+            default:
+                request = HttpRequest.newBuilder(uri)
+                        .timeout(Requests.TIMEOUT)
+                        .method(method, HttpRequest.BodyPublishers.noBody())
+                        .build();
+        }
+        return new PlannedRequest(offsetNanos, operation, request, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,73 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Builds the HTTP requests both workloads send against a users collection URL such as
+ * {@code http://localhost:8080/users}. User bodies are derived from a number, so the same seed produces
+ * byte-identical traffic.
+ */
+final class Requests {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private Requests() {
+    }
+
+    static HttpRequest create(String usersUrl, String email, long n) {
+        return json(usersUrl, "POST", user(email, n));
+    }
+
+    static HttpRequest patch(String usersUrl, String email, long n) {
+        return json(usersUrl + "/" + email, "PATCH", "{\"firstName\":\"Patched" + n + "\"}");
+    }
+
+    static HttpRequest put(String usersUrl, String email, long n) {
+        return json(usersUrl + "/" + email, "PUT", user(email, n));
+    }
+
+    static HttpRequest delete(String usersUrl, String email) {
+        return HttpRequest.newBuilder(URI.create(usersUrl + "/" + email)).timeout(TIMEOUT).DELETE().build();
+    }
+
+    static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).build();
+    }
+
+    static HttpRequest range(String usersUrl, LocalDate fromDate, LocalDate toDate) {
+        return get(usersUrl + "/?fromDate=" + fromDate + "&toDate=" + toDate);
+    }
+
+    static HttpRequest count(String usersUrl, LocalDate fromDate, LocalDate toDate) {
+        return get(usersUrl + "/count?fromDate=" + fromDate + "&toDate=" + toDate);
+    }
+
+    static HttpRequest byPhone(String usersUrl, long n) {
+        return get(usersUrl + "/by-phone/" + phoneNumber(n));
+    }
+
+    static LocalDate birthDate(long n) {
+        return LocalDate.of(1950 + (int) (n % 50), 1 + (int) (n % 12), 1 + (int) (n % 28));
+    }
+
+    static String phoneNumber(long n) {
+        return "+380" + (1_000_000 + n % 100_000);
+    }
+
+    private static String user(String email, long n) {
+        return """
+                {"email":"%s","firstName":"Load","lastName":"Test%d","birthDate":"%s","address":"Street %d","phoneNumber":"%s"}"""
+                .formatted(email, n, birthDate(n), n, phoneNumber(n));
+    }
+
+    private static HttpRequest json(String url, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package org.kharkiv.javapracticaltestassignment.loadtest;
+
+/**
+ * Source of requests in the order they are due. Called from the single scheduling thread, so
+ * implementations need no locking except for state shared with {@link PlannedRequest#onSuccess()}.
+ */
+interface Workload {
+
+    /**
+     * Returns the next request, or {@code null} when the workload is exhausted.
+     */
+    PlannedRequest next();
+}
@@ -0,0 +1,29 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailKeyTest {
+
+    @Test
+    void ofLowerCasesDomainOnly() {
+        assertEquals(EmailKey.of("John.Doe@gmail.com"), EmailKey.of("John.Doe@GMail.COM"));
+        assertEquals(EmailKey.of("John.Doe@gmail.com").hash64(), EmailKey.of("John.Doe@GMail.COM").hash64());
+        assertNotEquals(EmailKey.of("john.doe@gmail.com"), EmailKey.of("John.Doe@gmail.com"));
+        assertEquals("John.Doe@gmail.com", EmailKey.of("John.Doe@GMAIL.com").toString());
+        assertNull(EmailKey.of(null));
+    }
+
+    @Test
+    void matchesComparesCanonicalForm() {
+        EmailKey key = EmailKey.of("dummy@gmail.com");
+
+        assertTrue(key.matches("dummy@GMAIL.com"));
+        assertFalse(key.matches("Dummy@gmail.com"));
+        assertFalse(key.matches("dummy@gmail.co"));
+        assertFalse(key.matches("dummy@gmail.comm"));
+        assertFalse(key.matches(null));
+        assertTrue(EmailKey.of("юзер@Пошта.ua").matches("юзер@пошта.UA"));
+    }
+}
@@ -0,0 +1,57 @@
+package org.kharkiv.javapracticaltestassignment.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProjectionTest {
+
+    @Test
+    void ofSameFieldSetReturnsCachedInstance() {
+        assertSame(UserProjection.of("email,firstName"), UserProjection.of(" firstName , email,email"));
+    }
+
+    @Test
+    void ofUnknownFieldExceptionThrown() {
+        assertThrows(UserIllegalArgumentException.class, () -> UserProjection.of("email,password"));
+    }
+
+    @Test
+    void ofEmptyFieldsExceptionThrown() {
+        assertThrows(UserIllegalArgumentException.class, () -> UserProjection.of(" , "));
+    }
+
+    @Test
+    void birthDateIsWrittenLikeTheFullUser() throws Exception {
+        List<User> users = List.of(User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .birthDate(LocalDate.of(1990, 1, 2))
+                .build());
+        ProjectedUsers projected = new ProjectedUsers(users, UserProjection.of("email,birthDate"));
+        ObjectMapper cbor = CBORMapper.builder()
+                .findAndAddModules()
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper json = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        for (ObjectMapper mapper : List.of(cbor, json)) {
+            assertEquals(mapper.readTree(mapper.writeValueAsBytes(users)).get(0).get("birthDate"),
+                    mapper.readTree(mapper.writeValueAsBytes(projected)).get(0).get("birthDate"));
+        }
+        assertTrue(cbor.readTree(cbor.writeValueAsBytes(projected)).get(0).get("birthDate").isArray());
+        assertEquals("1990-01-02", json.readTree(json.writeValueAsBytes(projected)).get(0).get("birthDate").asText());
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.kharkiv.javapracticaltestassignment.profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserOperationEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsOperationKeyResultSizeAndFailure() throws Exception {
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            UserOperationEvent.record("findUsersByPhoneNumber", "+30943443", () -> List.of("a", "b"), List::size);
+            assertThrows(UserNotFoundException.class, () -> UserOperationEvent.record("delete", "dummy@gmail.com", () -> {
+                throw new UserNotFoundException("User with email dummy@gmail.com not found");
+            }, result -> 1));
+            UserOperationEvent.recordAsync("create", "async@gmail.com",
+                    () -> CompletableFuture.failedFuture(new IllegalStateException("closed"))).exceptionally(e -> null).join();
+        });
+
+        assertEquals(3, events.size());
+        assertEquals("findUsersByPhoneNumber", events.get(0).getString("operation"));
+        assertEquals(UserOperationEvent.hash("+30943443"), events.get(0).getString("key"));
+        assertEquals(UserOperationEvent.hash("dummy@gmail.com"), events.get(1).getString("key"));
+        assertEquals(2, events.get(0).getLong("resultSize"));
+        assertNull(events.get(0).getString("failure"));
+        assertEquals("UserNotFoundException", events.get(1).getString("failure"));
+        assertEquals("IllegalStateException", events.get(2).getString("failure"));
+    }
+
+    @Test
+    void redactHashesOnlyEmailsAndPhoneNumbers() {
+        assertEquals("2000-01-01..2001-01-01", UserOperationEvent.redact("2000-01-01..2001-01-01"));
+        assertEquals(UserOperationEvent.hash("dummy@gmail.com"), UserOperationEvent.redact("dummy@gmail.com"));
+        assertEquals(UserOperationEvent.hash("+30943443"), UserOperationEvent.redact("+30943443"));
+        assertNull(UserOperationEvent.redact(null));
+    }
+
+    @Test
+    void thresholdSkipsFastOperations() throws Exception {
+        List<RecordedEvent> events = record(Duration.ofHours(1),
+                () -> UserOperationEvent.record("findUserByEmail", "dummy@gmail.com", () -> 1, result -> result));
+
+        assertTrue(events.isEmpty());
+    }
+
+    private List<RecordedEvent> record(Duration threshold, Runnable operations) throws Exception {
+        Path file = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(UserOperationEvent.NAME).withThreshold(threshold);
+            recording.start();
+            operations.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(UserOperationEvent.NAME))
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.kharkiv.javapracticaltestassignment.replication.ReplicationLogTest.getUser;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReplicationController.class)
+@Import(ReplicationLog.class)
+@TestPropertySource(properties = {"replication.log-capacity=2"})
+class ReplicationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicationLog replicationLog;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void getSnapshotCarriesEpoch() throws Exception {
+        when(userService.snapshot()).thenReturn(
+                new ReplicationSnapshot(replicationLog.epoch(), 1, List.of(getUser("a@gmail.com"))));
+
+        mockMvc.perform(get("/replication/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.epoch").value(replicationLog.epoch()))
+                .andExpect(jsonPath("$.sequence").value(1))
+                .andExpect(jsonPath("$.users[0].email").value("a@gmail.com"));
+    }
+
+    @Test
+    void getLogReturnsTailWithEpoch() throws Exception {
+        replicationLog.append(MutationType.CREATE, "a@gmail.com", getUser("a@gmail.com"));
+        replicationLog.append(MutationType.CREATE, "b@gmail.com", getUser("b@gmail.com"));
+
+        mockMvc.perform(get("/replication/log").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.epoch").value(replicationLog.epoch()))
+                .andExpect(jsonPath("$.leaderSequence").value(2))
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andExpect(jsonPath("$.mutations.length()").value(1))
+                .andExpect(jsonPath("$.mutations[0].email").value("b@gmail.com"));
+    }
+
+    @Test
+    void getLogAheadOfLeaderReportsTruncated() throws Exception {
+        mockMvc.perform(get("/replication/log").param("after", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.truncated").value(true))
+                .andExpect(jsonPath("$.mutations.length()").value(0));
+    }
+
+    @Test
+    void getStatusWithoutFollowerReportsLeader() throws Exception {
+        replicationLog.append(MutationType.DELETE, "a@gmail.com", null);
+
+        mockMvc.perform(get("/replication/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("leader"))
+                .andExpect(jsonPath("$.lagEntries").value(0));
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.service.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ReplicationFollowerTest {
+
+    private static final String LEADER_URL = "http://leader";
+
+    private final UserService userService = mock(UserService.class);
+
+    private MockRestServiceServer leader;
+
+    private ReplicationFollower follower;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        leader = MockRestServiceServer.bindTo(builder).build();
+        follower = new ReplicationFollower(userService, builder, LEADER_URL);
+        ReflectionTestUtils.setField(follower, "batchSize", 10);
+    }
+
+    private void expectSnapshot(String epoch, long sequence) {
+        leader.expect(requestTo(LEADER_URL + "/replication/snapshot"))
+                .andRespond(withSuccess("{\"epoch\":\"" + epoch + "\",\"sequence\":" + sequence + ",\"users\":[]}",
+                        MediaType.APPLICATION_JSON));
+    }
+
+    private void expectLog(long after, String epoch, long leaderSequence, boolean truncated, String mutations) {
+        leader.expect(requestTo(LEADER_URL + "/replication/log?after=" + after + "&limit=10"))
+                .andRespond(withSuccess("{\"epoch\":\"" + epoch + "\",\"leaderSequence\":" + leaderSequence
+                                + ",\"truncated\":" + truncated + ",\"mutations\":[" + mutations + "]}",
+                        MediaType.APPLICATION_JSON));
+    }
+
+    private static String delete(long sequence, String email) {
+        return "{\"sequence\":" + sequence + ",\"timestamp\":1,\"type\":\"DELETE\",\"email\":\"" + email + "\"}";
+    }
+
+    @Test
+    void pollBootstrapsThenAppliesLogTail() {
+        expectSnapshot("e1", 3);
+        expectLog(3, "e1", 5, false, delete(4, "a@gmail.com") + "," + delete(5, "b@gmail.com"));
+
+        follower.poll();
+
+        leader.verify();
+        verify(userService).installSnapshot(List.of());
+        verify(userService, times(2)).applyReplicated(any(Mutation.class));
+        ReplicationStatus status = follower.status();
+        assertEquals(5, status.appliedSequence());
+        assertEquals(0, status.lagEntries());
+    }
+
+    @Test
+    void pollResyncsWhenLeaderEpochChanges() {
+        expectSnapshot("e1", 3);
+        expectLog(3, "e1", 3, false, "");
+        follower.poll();
+        leader.reset();
+
+        expectLog(3, "e2", 4, false, delete(4, "a@gmail.com"));
+        expectSnapshot("e2", 1);
+        follower.poll();
+
+        leader.verify();
+        verify(userService, times(2)).installSnapshot(List.of());
+        verify(userService, never()).applyReplicated(any(Mutation.class));
+        assertEquals(1, follower.status().appliedSequence());
+    }
+
+    @Test
+    void pollResyncsWhenLogIsTruncated() {
+        expectSnapshot("e1", 3);
+        expectLog(3, "e1", 3, false, "");
+        follower.poll();
+        leader.reset();
+
+        expectLog(3, "e1", 9, true, "");
+        expectSnapshot("e1", 9);
+        follower.poll();
+
+        leader.verify();
+        verify(userService, times(2)).installSnapshot(List.of());
+        assertEquals(9, follower.status().appliedSequence());
+        assertEquals(0, follower.status().lagEntries());
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.kharkiv.javapracticaltestassignment.replication;
+
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationLogTest {
+
+    private final ReplicationLog replicationLog = new ReplicationLog(2);
+
+    static User getUser(String email) {
+        return User.builder()
+                .email(email)
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .build();
+    }
+
+    @Test
+    void appendAssignsIncreasingSequences() {
+        Mutation first = replicationLog.append(MutationType.CREATE, "a@gmail.com", getUser("a@gmail.com"));
+        Mutation second = replicationLog.append(MutationType.DELETE, "a@gmail.com", null);
+
+        assertEquals(1, first.sequence());
+        assertEquals(2, second.sequence());
+        assertEquals(2, replicationLog.lastSequence());
+    }
+
+    @Test
+    void appendCopiesUserState() {
+        User user = getUser("a@gmail.com");
+        Mutation mutation = replicationLog.append(MutationType.CREATE, user.getEmail(), user);
+        user.setFirstName("changed");
+
+        assertEquals("dummy", mutation.user().getFirstName());
+    }
+
+    @Test
+    void readAfterReturnsTail() {
+        replicationLog.append(MutationType.CREATE, "a@gmail.com", getUser("a@gmail.com"));
+        replicationLog.append(MutationType.CREATE, "b@gmail.com", getUser("b@gmail.com"));
+
+        ReplicationLogBatch batch = replicationLog.readAfter(1, 10);
+
+        assertFalse(batch.truncated());
+        assertEquals(2, batch.leaderSequence());
+        assertEquals(1, batch.mutations().size());
+        assertEquals("b@gmail.com", batch.mutations().get(0).email());
+    }
+
+    @Test
+    void readAfterDroppedEntriesReportsTruncated() {
+        replicationLog.append(MutationType.CREATE, "a@gmail.com", getUser("a@gmail.com"));
+        replicationLog.append(MutationType.CREATE, "b@gmail.com", getUser("b@gmail.com"));
+        replicationLog.append(MutationType.CREATE, "c@gmail.com", getUser("c@gmail.com"));
+
+        assertTrue(replicationLog.readAfter(0, 10).truncated());
+        assertFalse(replicationLog.readAfter(1, 10).truncated());
+    }
+
+    @Test
+    void readAfterWrappedLogReturnsMutationsInOrderUpToLimit() {
+        for (String email : new String[]{"a@gmail.com", "b@gmail.com", "c@gmail.com", "d@gmail.com", "e@gmail.com"}) {
+            replicationLog.append(MutationType.CREATE, email, getUser(email));
+        }
+
+        assertEquals(List.of("d@gmail.com", "e@gmail.com"),
+                replicationLog.readAfter(3, 10).mutations().stream().map(Mutation::email).toList());
+        assertEquals(List.of("d@gmail.com"),
+                replicationLog.readAfter(3, 1).mutations().stream().map(Mutation::email).toList());
+        assertTrue(replicationLog.readAfter(5, 10).mutations().isEmpty());
+    }
+
+    @Test
+    void readAfterAheadOfLogReportsTruncated() {
+        replicationLog.append(MutationType.CREATE, "a@gmail.com", getUser("a@gmail.com"));
+
+        ReplicationLogBatch batch = replicationLog.readAfter(5, 10);
+
+        assertTrue(batch.truncated());
+        assertEquals(1, batch.leaderSequence());
+    }
+
+    @Test
+    void batchesCarryLogEpoch() {
+        ReplicationLog restarted = new ReplicationLog(2);
+
+        assertEquals(replicationLog.epoch(), replicationLog.readAfter(0, 10).epoch());
+        assertNotEquals(replicationLog.epoch(), restarted.epoch());
+    }
+
+}
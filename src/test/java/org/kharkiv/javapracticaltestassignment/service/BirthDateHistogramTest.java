@@ -0,0 +1,64 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BirthDateHistogramTest {
+
+    private final BirthDateHistogram histogram = new BirthDateHistogram();
+
+    @Test
+    void countIsInclusiveOnBothEnds() {
+        histogram.add(LocalDate.of(1990, 1, 1));
+        histogram.add(LocalDate.of(1995, 6, 15));
+        histogram.add(LocalDate.of(2000, 1, 1));
+        histogram.add(LocalDate.of(2000, 1, 2));
+
+        assertEquals(3, histogram.count(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1)));
+        assertEquals(1, histogram.count(LocalDate.of(1995, 6, 15), LocalDate.of(1995, 6, 15)));
+        assertEquals(0, histogram.count(LocalDate.of(1991, 1, 1), LocalDate.of(1995, 6, 14)));
+    }
+
+    @Test
+    void moveAndRemoveUpdateCounts() {
+        histogram.add(LocalDate.of(1990, 1, 1));
+        histogram.add(LocalDate.of(1990, 1, 1));
+        histogram.move(LocalDate.of(1990, 1, 1), LocalDate.of(1980, 1, 1));
+        histogram.remove(LocalDate.of(1990, 1, 1));
+
+        assertEquals(0, histogram.count(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31)));
+        assertEquals(1, histogram.count(LocalDate.of(1980, 1, 1), LocalDate.of(1980, 1, 1)));
+        assertEquals(1, histogram.total());
+    }
+
+    @Test
+    void countsDatesOutsideTrackedRange() {
+        histogram.add(LocalDate.of(1950, 3, 3));
+        histogram.add(LocalDate.of(1850, 1, 1));
+        histogram.add(LocalDate.of(1700, 12, 31));
+        histogram.add(LocalDate.MIN);
+        histogram.add(LocalDate.of(-100000, 1, 1));
+
+        assertEquals(3, histogram.count(LocalDate.of(1600, 1, 1), LocalDate.of(2020, 1, 1)));
+        assertEquals(1, histogram.count(LocalDate.of(1850, 1, 1), LocalDate.of(1850, 1, 1)));
+        assertEquals(1, histogram.count(LocalDate.of(1950, 1, 1), LocalDate.of(1950, 12, 31)));
+        assertEquals(5, histogram.count(LocalDate.MIN, LocalDate.of(2020, 1, 1)));
+
+        histogram.remove(LocalDate.MIN);
+        assertEquals(Map.of(-100000, 1L, 1700, 1L, 1850, 1L, 1950, 1L), histogram.countByYear());
+    }
+
+    @Test
+    void countByYearSkipsEmptyYears() {
+        histogram.add(LocalDate.of(1990, 1, 1));
+        histogram.add(LocalDate.of(1990, 12, 31));
+        histogram.add(LocalDate.of(1992, 5, 5));
+
+        assertEquals(Map.of(1990, 2L, 1992, 1L), histogram.countByYear());
+    }
+
+}
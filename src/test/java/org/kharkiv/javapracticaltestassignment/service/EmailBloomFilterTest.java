@@ -0,0 +1,50 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.model.EmailKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailBloomFilterTest {
+
+    private final EmailBloomFilter filter = new EmailBloomFilter(1000);
+
+    @Test
+    void addedEmailsAreAlwaysReported() {
+        for (int i = 0; i < 1000; i++) {
+            filter.add(EmailKey.of("user" + i + "@gmail.com"));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(EmailKey.of("user" + i + "@gmail.com")));
+        }
+        assertFalse(filter.isFull());
+    }
+
+    @Test
+    void falsePositiveRateStaysLowAtCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            filter.add(EmailKey.of("user" + i + "@gmail.com"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(EmailKey.of("absent" + i + "@gmail.com"))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.estimatedFalsePositiveRate() < 0.03);
+    }
+
+    @Test
+    void removeClearsCounters() {
+        filter.add(EmailKey.of("john@gmail.com"));
+        filter.add(EmailKey.of("jane@gmail.com"));
+        filter.remove(EmailKey.of("john@gmail.com"));
+
+        assertFalse(filter.mightContain(EmailKey.of("john@gmail.com")));
+        assertTrue(filter.mightContain(EmailKey.of("jane@gmail.com")));
+        assertEquals(0, new EmailBloomFilter(10).estimatedFalsePositiveRate());
+    }
+}
@@ -0,0 +1,113 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationPipelineTest {
+
+    private final Object lock = new Object();
+
+    private final MutationPipeline pipeline = new MutationPipeline(lock, 8, 4);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void submitCompletesWithResult() {
+        pipeline.start();
+
+        assertEquals(42, pipeline.submit(() -> 42).join());
+    }
+
+    @Test
+    void submitFailureCompletesExceptionally() {
+        pipeline.start();
+
+        CompletableFuture<Object> future = pipeline.submit(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertEquals(1, pipeline.submit(() -> 1).join());
+    }
+
+    @Test
+    void errorInTaskFailsOnlyItsFuture() {
+        pipeline.start();
+
+        CompletableFuture<Object> future = pipeline.submit(() -> {
+            throw new StackOverflowError();
+        });
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(StackOverflowError.class, exception.getCause());
+        assertEquals(1, pipeline.submit(() -> 1).join());
+    }
+
+    @Test
+    void closeFailsTasksLeftInTheRing() {
+        CompletableFuture<Integer> pending = pipeline.submit(() -> 1);
+
+        pipeline.close();
+
+        CompletionException exception = assertThrows(CompletionException.class, pending::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertThrows(CompletionException.class, () -> pipeline.submit(() -> 2).join());
+    }
+
+    @Test
+    void concurrentProducersAreAppliedOnceInOrderPerProducer() throws Exception {
+        pipeline.start();
+        List<Integer> applied = new ArrayList<>();
+        int producers = 4;
+        int perProducer = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int value = producer * perProducer + i;
+                    CompletableFuture<Void> future = pipeline.submit(() -> {
+                        applied.add(value);
+                        return null;
+                    });
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+            Thread.sleep(10);
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        synchronized (lock) {
+            assertEquals(producers * perProducer, applied.size());
+            int[] last = new int[producers];
+            Arrays.fill(last, -1);
+            for (int value : applied) {
+                int producer = value / perProducer;
+                assertTrue(value > last[producer]);
+                last[producer] = value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneIndexTest {
+
+    private final PhoneIndex<User> phoneIndex = new PhoneIndex<>();
+
+    static User getUser(String phoneNumber) {
+        return User.builder()
+                .email(phoneNumber + "@gmail.com")
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+
+    @Test
+    void packIgnoresPlusAndKeepsLeadingZeros() {
+        assertEquals(PhoneIndex.pack("+380501234567"), PhoneIndex.pack("380501234567"));
+        assertNotEquals(PhoneIndex.pack("0501234567"), PhoneIndex.pack("501234567"));
+        assertEquals(0, PhoneIndex.pack("12345678901234567"));
+        assertEquals(0, PhoneIndex.pack("+"));
+    }
+
+    @Test
+    void findReturnsAllUsersSharingNumber() {
+        User user1 = getUser("+30943443");
+        User user2 = getUser("30943443");
+        phoneIndex.add(user1.getPhoneNumber(), user1);
+        phoneIndex.add(user2.getPhoneNumber(), user2);
+
+        assertEquals(List.of(user1, user2), phoneIndex.find(PhoneIndex.pack("30943443")));
+
+        phoneIndex.remove(user1.getPhoneNumber(), user1);
+
+        assertEquals(List.of(user2), phoneIndex.find(PhoneIndex.pack("30943443")));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomAddsAndRemoves() {
+        Map<String, User> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String phoneNumber = "+380" + random.nextInt(5_000);
+            if (expected.containsKey(phoneNumber)) {
+                phoneIndex.remove(phoneNumber, expected.remove(phoneNumber));
+            } else {
+                User user = getUser(phoneNumber);
+                expected.put(phoneNumber, user);
+                phoneIndex.add(phoneNumber, user);
+            }
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            String phoneNumber = "+380" + i;
+            User user = expected.get(phoneNumber);
+            assertEquals(user == null ? List.of() : List.of(user), phoneIndex.find(PhoneIndex.pack(phoneNumber)));
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.exception.UserBadRequestException;
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+@SpringBootTest
+@TestPropertySource(properties = {"min.age=18"})
+class ReactiveUserServiceTest {
+
+    @Autowired
+    private ReactiveUserService reactiveUserService;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService.deleteAll();
+    }
+
+    static User getUser(String email, LocalDate birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(birthDate)
+                .address("dummy")
+                .phoneNumber("+30943443")
+                .build();
+    }
+
+    @Test
+    void createThenGetAllUsersEmitsUser() {
+        User user = getUser("dummy@gmail.com", LocalDate.of(2000, 12, 12));
+
+        StepVerifier.create(reactiveUserService.create(user)).verifyComplete();
+        StepVerifier.create(reactiveUserService.getAllUsers())
+                .expectNext(user)
+                .verifyComplete();
+    }
+
+    @Test
+    void createInvalidAgeEmitsError() {
+        User user = getUser("dummy@gmail.com", LocalDate.of(2021, 12, 12));
+
+        StepVerifier.create(reactiveUserService.create(user))
+                .verifyError(UserBadRequestException.class);
+    }
+
+    @Test
+    void getUsersByBirthDateRangeHonoursBackpressure() {
+        userService.create(getUser("a@gmail.com", LocalDate.of(1991, 1, 1)));
+        userService.create(getUser("b@gmail.com", LocalDate.of(1992, 1, 1)));
+        userService.create(getUser("c@gmail.com", LocalDate.of(1980, 1, 1)));
+
+        StepVerifier.create(reactiveUserService.getUsersByBirthDateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1)), 1)
+                .expectNextMatches(user -> user.getEmail().equals("a@gmail.com"))
+                .thenRequest(1)
+                .expectNextMatches(user -> user.getEmail().equals("b@gmail.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void getUsersByBirthDateRangeReadsOnSubscribe() {
+        Flux<User> users = reactiveUserService.getUsersByBirthDateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1));
+        userService.create(getUser("a@gmail.com", LocalDate.of(1991, 1, 1)));
+
+        StepVerifier.create(users)
+                .expectNextMatches(user -> user.getEmail().equals("a@gmail.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void getUsersByBirthDateRangeInvalidRangeEmitsError() {
+        StepVerifier.create(reactiveUserService.getUsersByBirthDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2023, 1, 1)))
+                .verifyError(UserIllegalArgumentException.class);
+    }
+
+    @Test
+    void lockedModeMutationRunsOffTheSubscribingThread() {
+        Thread caller = Thread.currentThread();
+        User user = getUser("dummy@gmail.com", LocalDate.of(2000, 12, 12));
+
+        StepVerifier.create(reactiveUserService.create(user).then(Mono.fromCallable(Thread::currentThread)))
+                .expectNextMatches(thread -> thread != caller)
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
+import org.kharkiv.javapracticaltestassignment.model.SharedUserList;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCoalescerTest {
+
+    private final ReadCoalescer readCoalescer = new ReadCoalescer(60_000, 16, 1 << 20, 1 << 20);
+
+    @Test
+    void concurrentIdenticalReadsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> readCoalescer.execute("key", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            while (readCoalescer.getCoalescedCount() + readCoalescer.getComputedCount() < 8) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(7, readCoalescer.getCoalescedCount());
+    }
+
+    @Test
+    void completedResultIsReusedWithinWindowOnlyForSameKey() {
+        assertEquals("first", readCoalescer.execute(List.of("all", 1L), () -> "first"));
+        assertEquals("first", readCoalescer.execute(List.of("all", 1L), () -> "second"));
+        assertEquals("third", readCoalescer.execute(List.of("all", 2L), () -> "third"));
+
+        ReadCoalescer noWindow = new ReadCoalescer(0, 16, 1 << 20, 1 << 20);
+        assertEquals("first", noWindow.execute("key", () -> "first"));
+        assertEquals("second", noWindow.execute("key", () -> "second"));
+    }
+
+    @Test
+    void failedComputationIsNotShared() {
+        assertThrows(UserIllegalArgumentException.class, () -> readCoalescer.execute("key", () -> {
+            throw new UserIllegalArgumentException("Values must be earlier than current date");
+        }));
+        assertEquals("retried", readCoalescer.execute("key", () -> "retried"));
+    }
+
+    @Test
+    void errorInComputationIsNotShared() {
+        assertThrows(StackOverflowError.class, () -> readCoalescer.execute("key", () -> {
+            throw new StackOverflowError();
+        }));
+        assertEquals("retried", readCoalescer.execute("key", () -> "retried"));
+    }
+
+    @Test
+    void finishedFlightsAreEvictedWhenTheirWindowEnds() throws Exception {
+        ReadCoalescer shortWindow = new ReadCoalescer(1, 1024, 1 << 20, 1 << 20);
+        for (long version = 0; version < 100; version++) {
+            shortWindow.execute(List.of("all", version), () -> "users");
+        }
+        Thread.sleep(5);
+
+        shortWindow.execute(List.of("all", 100L), () -> "users");
+
+        assertEquals(1, shortWindow.size());
+    }
+
+    @Test
+    void serializedListsStayWithinRetainedBytes() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(60_000, 16, 8, 12);
+        SharedUserList.Serializer serializer = list -> new byte[8];
+
+        SharedUserList first = (SharedUserList) coalescer.users("first", () -> List.of(new User()));
+        SharedUserList second = (SharedUserList) coalescer.users("second", () -> List.of(new User()));
+        first.serialized(serializer);
+        second.serialized(serializer);
+
+        assertNotNull(first.serialized(serializer));
+        assertNull(second.serialized(serializer));
+        assertEquals(8, coalescer.getRetainedBytes());
+
+        first.release();
+        assertEquals(0, coalescer.getRetainedBytes());
+    }
+
+    @Test
+    void sharedUserListIsSerializedOnce() throws Exception {
+        AtomicInteger serializations = new AtomicInteger();
+        SharedUserList users = new SharedUserList(List.of(new User()), 4);
+        SharedUserList.Serializer serializer = list -> {
+            serializations.incrementAndGet();
+            return new byte[]{'[', ']'};
+        };
+
+        assertArrayEquals(new byte[]{'[', ']'}, users.serialized(serializer));
+        assertArrayEquals(new byte[]{'[', ']'}, users.serialized(serializer));
+        assertEquals(1, serializations.get());
+
+        SharedUserList large = new SharedUserList(List.of(new User()), 1);
+        assertNotNull(large.serialized(serializer));
+        assertNull(large.serialized(serializer));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.exception.UserBadRequestException;
+import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {"min.age=18", "write.mode=single-writer"})
+class SingleWriterUserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService.deleteAll();
+    }
+
+    static User getUser(String email) {
+        return User.builder()
+                .email(email)
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .phoneNumber("+30943443")
+                .build();
+    }
+
+    @Test
+    void mutationsAreAppliedThroughWriter() {
+        userService.create(getUser("dummy@gmail.com"));
+        userService.updateUser("dummy@gmail.com", Map.of("firstName", "updated"));
+
+        assertEquals("updated", userService.findUserByEmail("dummy@gmail.com").get().getFirstName());
+        assertThrows(UserBadRequestException.class, () -> userService.create(getUser("dummy@gmail.com")));
+        assertThrows(UserNotFoundException.class, () -> userService.delete("nonexistent@example.com"));
+    }
+
+    @Test
+    void concurrentCreatesOfSameEmailAcceptExactlyOne() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(userService.createAsync(getUser("dummy@gmail.com")));
+        }
+
+        long succeeded = futures.stream()
+                .filter(future -> !future.handle((result, failure) -> failure != null).join())
+                .count();
+
+        assertEquals(1, succeeded);
+        assertEquals(1, userService.getAllUsers().size());
+    }
+
+}
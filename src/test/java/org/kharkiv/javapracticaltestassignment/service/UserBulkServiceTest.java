@@ -0,0 +1,144 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kharkiv.javapracticaltestassignment.model.ImportResult;
+import org.kharkiv.javapracticaltestassignment.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {"min.age=18", "bulk.batch-size=2", "bulk.buffer-size=256"})
+class UserBulkServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userService.deleteAll();
+    }
+
+    private ImportResult importText(String text, BulkFormat format) throws IOException {
+        return userImportService.importUsers(
+                Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), format);
+    }
+
+    private String export(BulkFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.export(format, Channels.newChannel(out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void importNdjsonValidAndInvalidLines() throws IOException {
+        String ndjson = """
+                {"email":"a@gmail.com","firstName":"a","lastName":"a","birthDate":"1990-01-01"}
+                {"email":"b@gmail.com","firstName":"b","lastName":"b","birthDate":"2020-01-01"}
+                {"email":"not-an-email","firstName":"c","lastName":"c","birthDate":"1990-01-01"}
+                not json
+                {"email":"a@gmail.com","firstName":"d","lastName":"d","birthDate":"1990-01-01"}
+                {"email":"e@gmail.com","firstName":"e","lastName":"e","birthDate":"1990-01-01","phoneNumber":"+380"}""";
+
+        ImportResult result = importText(ndjson, BulkFormat.NDJSON);
+
+        assertEquals(2, result.imported());
+        assertEquals(4, result.rejected());
+        assertTrue(userService.findUserByEmail("a@gmail.com").isPresent());
+        assertEquals("a", userService.findUserByEmail("a@gmail.com").get().getFirstName());
+        assertTrue(userService.findUserByEmail("e@gmail.com").isPresent());
+    }
+
+    @Test
+    void importCsvWithHeaderAndQuotedFields() throws IOException {
+        String csv = UserCsv.HEADER + "\r\n"
+                + "a@gmail.com,a,a,1990-01-01,\"Sumska 1, Kharkiv\",+380\r\n"
+                + "b@gmail.com,b,b,not-a-date,,\r\n";
+
+        ImportResult result = importText(csv, BulkFormat.CSV);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.rejected());
+        assertEquals("Sumska 1, Kharkiv", userService.findUserByEmail("a@gmail.com").get().getAddress());
+    }
+
+    @Test
+    void importLineLongerThanBufferIsRejected() throws IOException {
+        String ndjson = "{\"email\":\"a@gmail.com\",\"firstName\":\"" + "a".repeat(300) + "\",\"lastName\":\"a\",\"birthDate\":\"1990-01-01\"}\n"
+                + "{\"email\":\"b@gmail.com\",\"firstName\":\"b\",\"lastName\":\"b\",\"birthDate\":\"1990-01-01\"}\n";
+
+        ImportResult result = importText(ndjson, BulkFormat.NDJSON);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.rejected());
+        assertTrue(result.errors().get(0).startsWith("Line 1:"));
+        assertTrue(userService.findUserByEmail("b@gmail.com").isPresent());
+    }
+
+    @Test
+    void exportThenImportRoundTrips() throws IOException {
+        userService.create(User.builder()
+                .email("a@gmail.com")
+                .firstName("a")
+                .lastName("a")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .address("Sumska 1, \"Kharkiv\"")
+                .build());
+
+        String csv = export(BulkFormat.CSV);
+        String ndjson = export(BulkFormat.NDJSON);
+        assertEquals(ndjson, export(BulkFormat.NDJSON));
+
+        userService.deleteAll();
+        assertEquals(1, importText(csv, BulkFormat.CSV).imported());
+        assertEquals("Sumska 1, \"Kharkiv\"", userService.findUserByEmail("a@gmail.com").get().getAddress());
+
+        userService.deleteAll();
+        assertEquals(1, importText(ndjson, BulkFormat.NDJSON).imported());
+        assertEquals(LocalDate.of(1990, 1, 1), userService.findUserByEmail("a@gmail.com").get().getBirthDate());
+    }
+
+    @Test
+    void multiLineAddressRoundTripsThroughCsv() throws IOException {
+        userService.create(User.builder()
+                .email("a@gmail.com")
+                .firstName("a")
+                .lastName("a")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .address("Sumska 1\r\nKharkiv, \"61000\"\nUkraine")
+                .build());
+        userService.create(User.builder()
+                .email("b@gmail.com")
+                .firstName("b")
+                .lastName("b")
+                .birthDate(LocalDate.of(1991, 1, 1))
+                .address("Nauky 2")
+                .build());
+
+        String csv = export(BulkFormat.CSV);
+        userService.deleteAll();
+
+        ImportResult result = importText(csv, BulkFormat.CSV);
+        assertEquals(2, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals("Sumska 1\r\nKharkiv, \"61000\"\nUkraine", userService.findUserByEmail("a@gmail.com").get().getAddress());
+        assertEquals("Nauky 2", userService.findUserByEmail("b@gmail.com").get().getAddress());
+    }
+
+}
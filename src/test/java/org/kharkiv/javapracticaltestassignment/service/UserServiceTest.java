@@ -5,13 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.kharkiv.javapracticaltestassignment.exception.UserBadRequestException;
 import org.kharkiv.javapracticaltestassignment.exception.UserIllegalArgumentException;
 import org.kharkiv.javapracticaltestassignment.exception.UserNotFoundException;
+import org.kharkiv.javapracticaltestassignment.exception.UserPreconditionFailedException;
 import org.kharkiv.javapracticaltestassignment.model.User;
+import org.kharkiv.javapracticaltestassignment.model.VersionedUser;
+import org.kharkiv.javapracticaltestassignment.replication.Mutation;
+import org.kharkiv.javapracticaltestassignment.replication.MutationType;
+import org.kharkiv.javapracticaltestassignment.replication.ReplicationSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,7 +33,7 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService.getAllUsers().clear();
+        userService.deleteAll();
     }
 
     @Test
@@ -151,9 +157,9 @@ class UserServiceTest {
         updates.put("lastName", "Smith");
         updates.put("birthDate", "1995-05-05");
 
-        User actualResult = userService.getAllUsers().get(0);
-
         assertDoesNotThrow(() -> userService.updateUser(user.getEmail(), updates));
+
+        User actualResult = userService.getAllUsers().get(0);
         assertEquals("Jane", actualResult.getFirstName());
         assertEquals("Smith", actualResult.getLastName());
         assertEquals(LocalDate.of(1995, 5, 5), actualResult.getBirthDate());
@@ -426,4 +432,175 @@ class UserServiceTest {
         assertThrows(UserIllegalArgumentException.class, () -> userService.getUsersByBirthDateRange(currentDate, currentDate));
     }
 
-}
\ No newline at end of file
+    @Test
+    void applyReplicatedMutationsOnTopOfSnapshotSuccess() {
+        User user = User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .address("dummy")
+                .phoneNumber("+30943443")
+                .build();
+        userService.create(user);
+        ReplicationSnapshot snapshot = userService.snapshot();
+        User updatedUser = user.toBuilder().firstName("updated").build();
+
+        userService.installSnapshot(snapshot.users());
+        userService.applyReplicated(new Mutation(snapshot.sequence() + 1, 0, MutationType.UPDATE, user.getEmail(), updatedUser));
+
+        assertEquals(1, userService.getAllUsers().size());
+        assertEquals("updated", userService.findUserByEmail("dummy@gmail.com").get().getFirstName());
+
+        userService.applyReplicated(new Mutation(snapshot.sequence() + 2, 0, MutationType.DELETE, user.getEmail(), null));
+
+        assertTrue(userService.getAllUsers().isEmpty());
+    }
+
+    @Test
+    void countUsersByBirthDateRangeFollowsUpdatesAndDeletes() {
+        User user1 = User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(1995, 5, 5))
+                .build();
+        User user2 = User.builder()
+                .email("d@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .build();
+        userService.create(user1);
+        userService.create(user2);
+        LocalDate fromDate = LocalDate.of(1990, 1, 1);
+        LocalDate toDate = LocalDate.of(2000, 1, 1);
+
+        assertEquals(1, userService.countUsersByBirthDateRange(fromDate, toDate));
+
+        userService.updateUser("d@gmail.com", Map.of("birthDate", "1999-01-01"));
+        assertEquals(2, userService.countUsersByBirthDateRange(fromDate, toDate));
+
+        userService.updateUserByEmail("dummy@gmail.com", user1.toBuilder().birthDate(LocalDate.of(1970, 1, 1)).build());
+        assertEquals(1, userService.countUsersByBirthDateRange(fromDate, toDate));
+
+        userService.delete("d@gmail.com");
+        assertEquals(0, userService.countUsersByBirthDateRange(fromDate, toDate));
+        assertEquals(Map.of(1970, 1L), userService.getBirthYearHistogram());
+    }
+
+    @Test
+    void findUsersByPhoneNumberFollowsUpdatesAndDeletes() {
+        User user = User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .phoneNumber("+30943443")
+                .build();
+        userService.create(user);
+
+        assertEquals(List.of(user), userService.findUsersByPhoneNumber("30943443"));
+
+        userService.updateUser("dummy@gmail.com", Map.of("phoneNumber", "+111"));
+        assertTrue(userService.findUsersByPhoneNumber("+30943443").isEmpty());
+        assertEquals(List.of("dummy@gmail.com"),
+                userService.findUsersByPhoneNumber("+111").stream().map(User::getEmail).toList());
+
+        userService.delete("dummy@gmail.com");
+        assertTrue(userService.findUsersByPhoneNumber("+111").isEmpty());
+    }
+
+    @Test
+    void emailDomainIsCaseInsensitive() {
+        User user = User.builder()
+                .email("Dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .build();
+        userService.create(user);
+
+        assertEquals(Optional.of(user), userService.findUserByEmail("Dummy@GMAIL.COM"));
+        assertTrue(userService.findUserByEmail("dummy@gmail.com").isEmpty());
+        assertThrows(UserBadRequestException.class,
+                () -> userService.create(user.toBuilder().email("Dummy@Gmail.com").build()));
+
+        userService.updateUserByEmail("Dummy@gmail.com", user.toBuilder().email("Dummy@GMAIL.com").firstName("john").build());
+        assertEquals("john", userService.findUserByEmail("Dummy@gmail.com").orElseThrow().getFirstName());
+
+        userService.delete("Dummy@Gmail.com");
+        assertTrue(userService.getAllUsers().isEmpty());
+    }
+
+    @Test
+    void updatesSwapInNewVersionsAndLeaveEarlierReadsIntact() {
+        User user = User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .phoneNumber("+111")
+                .build();
+        userService.create(user);
+        VersionedUser created = userService.findVersionedUser("dummy@gmail.com").orElseThrow();
+
+        long patched = userService.updateUser("dummy@gmail.com", Map.of("firstName", "john", "phoneNumber", "+222"), created.version());
+        long replaced = userService.updateUserByEmail("dummy@gmail.com", user.toBuilder().lastName("smith").build(), patched);
+
+        assertTrue(created.version() < patched && patched < replaced);
+        assertEquals("dummy", created.user().getFirstName());
+        VersionedUser current = userService.findVersionedUser("dummy@gmail.com").orElseThrow();
+        assertEquals(replaced, current.version());
+        assertEquals("smith", current.user().getLastName());
+        assertEquals(1, userService.findUsersByPhoneNumber("+111").size());
+        assertTrue(userService.findUsersByPhoneNumber("+222").isEmpty());
+    }
+
+    @Test
+    void updateWithStaleVersionPreconditionFailedAndUserUnchanged() {
+        User user = User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .build();
+        userService.create(user);
+        long stale = userService.findVersionedUser("dummy@gmail.com").orElseThrow().version();
+        long current = userService.updateUser("dummy@gmail.com", Map.of("firstName", "first"), stale);
+
+        assertThrows(UserPreconditionFailedException.class,
+                () -> userService.updateUser("dummy@gmail.com", Map.of("firstName", "second"), stale));
+        assertThrows(UserPreconditionFailedException.class,
+                () -> userService.updateUserByEmail("dummy@gmail.com", user.toBuilder().firstName("third").build(), stale));
+        VersionedUser unchanged = userService.findVersionedUser("dummy@gmail.com").orElseThrow();
+        assertEquals(current, unchanged.version());
+        assertEquals("first", unchanged.user().getFirstName());
+    }
+
+    @Test
+    void failedPatchLeavesUserAndIndexesUntouched() {
+        User user = User.builder()
+                .email("dummy@gmail.com")
+                .firstName("dummy")
+                .lastName("dummy")
+                .birthDate(LocalDate.of(2000, 12, 12))
+                .phoneNumber("+111")
+                .build();
+        userService.create(user);
+        Map<String, String> updates = new LinkedHashMap<>();
+        updates.put("phoneNumber", "+222");
+        updates.put("lastName", "");
+
+        assertThrows(UserBadRequestException.class, () -> userService.updateUser("dummy@gmail.com", updates));
+        assertEquals("+111", userService.findUserByEmail("dummy@gmail.com").orElseThrow().getPhoneNumber());
+        assertEquals(1, userService.findUsersByPhoneNumber("+111").size());
+        assertTrue(userService.findUsersByPhoneNumber("+222").isEmpty());
+    }
+
+    @Test
+    void findUsersByPhoneNumberInvalidNumberExceptionThrown() {
+        assertThrows(UserBadRequestException.class, () -> userService.findUsersByPhoneNumber("dummy"));
+    }
+
+}
@@ -0,0 +1,230 @@
+package org.kharkiv.javapracticaltestassignment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kharkiv.javapracticaltestassignment.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private UserStore userStore;
+
+    @BeforeEach
+    void setUp() {
+        userStore = new UserStore(2, tempDir.resolve("users.seg").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        userStore.close();
+    }
+
+    @Test
+    void keepsAtMostHotCapacityUsersOnHeap() {
+        for (int i = 0; i < 10; i++) {
+            userStore.add(user(i));
+        }
+
+        assertEquals(10, userStore.size());
+        assertEquals(2, userStore.hotCount());
+        assertEquals(List.of("user0@gmail.com", "user5@gmail.com", "user9@gmail.com"),
+                userStore.users().map(User::getEmail).filter(email -> email.matches("user[059]@.*")).collect(toList()));
+    }
+
+    @Test
+    void coldUserRoundTripsAndIsPromotedOnLookup() {
+        User original = user(0);
+        original.setAddress(null);
+        userStore.add(original);
+        userStore.add(user(1));
+        userStore.add(user(2));
+        UserEntry entry = userStore.entry("user0@gmail.com");
+        assertNull(entry.user);
+
+        User loaded = userStore.find("user0@gmail.com").orElseThrow();
+
+        assertNotSame(original, loaded);
+        assertEquals(original.getFirstName(), loaded.getFirstName());
+        assertEquals(original.getBirthDate(), loaded.getBirthDate());
+        assertNull(loaded.getAddress());
+        assertEquals(original.getPhoneNumber(), loaded.getPhoneNumber());
+        assertSame(loaded, entry.user);
+        assertEquals(2, userStore.hotCount());
+    }
+
+    @Test
+    void frequentlyReadUsersStayHot() {
+        userStore.add(user(0));
+        UserEntry hot = userStore.entry("user0@gmail.com");
+        for (int i = 1; i < 10; i++) {
+            userStore.find("user0@gmail.com");
+            userStore.find("user0@gmail.com");
+            userStore.add(user(i));
+        }
+
+        assertNotNull(hot.user);
+    }
+
+    @Test
+    void pinnedUserIsNotEvictedAndModificationSurvivesSpill() {
+        userStore.add(user(0));
+        UserEntry entry = userStore.entry("user0@gmail.com");
+        User user = userStore.pin(entry);
+        userStore.add(user(1));
+        userStore.add(user(2));
+        userStore.add(user(3));
+        assertSame(user, entry.user);
+
+        user.setFirstName("Changed");
+        userStore.unpin(entry, true);
+        for (int i = 4; i < 10; i++) {
+            userStore.add(user(i));
+        }
+
+        assertNull(entry.user);
+        assertEquals("Changed", userStore.read(entry).getFirstName());
+    }
+
+    @Test
+    void failedSpillRollsBackTheAdd() throws IOException {
+        UserStore unwritable = new UserStore(1, tempDir.resolve("missing").resolve("users.seg").toString());
+        unwritable.add(user(0));
+
+        assertThrows(UncheckedIOException.class, () -> unwritable.add(user(1)));
+
+        assertEquals(1, unwritable.size());
+        assertFalse(unwritable.contains("user1@gmail.com"));
+        assertNull(unwritable.entry("user1@gmail.com"));
+        assertEquals(1, unwritable.hotCount());
+        assertEquals(List.of("user0@gmail.com"), unwritable.users().map(User::getEmail).collect(toList()));
+        Files.createDirectories(tempDir.resolve("missing"));
+        unwritable.add(user(2));
+        assertNull(unwritable.entry("user0@gmail.com").user);
+        unwritable.close();
+    }
+
+    @Test
+    void secondStoreOnTheSameSegmentFailsInsteadOfTruncatingIt() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            userStore.add(user(i));
+        }
+        UserStore other = new UserStore(1, tempDir.resolve("users.seg").toString());
+        other.add(user(0));
+
+        assertThrows(UncheckedIOException.class, () -> other.add(user(1)));
+        assertEquals("First0", userStore.read(userStore.entry("user0@gmail.com")).getFirstName());
+        other.close();
+    }
+
+    @Test
+    void removeAndRekeyUpdateEmailIndex() {
+        for (int i = 0; i < 5; i++) {
+            userStore.add(user(i));
+        }
+        userStore.remove(userStore.entry("user0@gmail.com"));
+        userStore.rekey(userStore.entry("user1@gmail.com"), "renamed@gmail.com");
+
+        assertFalse(userStore.contains("user0@gmail.com"));
+        assertFalse(userStore.contains("user1@gmail.com"));
+        assertTrue(userStore.contains("renamed@gmail.com"));
+        assertEquals(4, userStore.view().size());
+        assertEquals("user2@gmail.com", userStore.view().get(1).getEmail());
+    }
+
+    @Test
+    void removedUsersAreReleasedFromTheClock() throws IOException {
+        List<UserEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.add(userStore.add(user(i)));
+        }
+        for (UserEntry entry : entries) {
+            userStore.remove(entry);
+        }
+
+        assertEquals(0, userStore.size());
+        assertEquals(0, userStore.hotCount());
+        assertTrue(userStore.clockSize() <= 1);
+        assertTrue(entries.stream().allMatch(entry -> entry.user == null && entry.coldCopy == null));
+
+        UserStore unbounded = new UserStore(0, tempDir.resolve("unbounded.seg").toString());
+        try {
+            for (int i = 0; i < 1000; i++) {
+                unbounded.remove(unbounded.add(user(i)));
+            }
+            assertEquals(0, unbounded.hotCount());
+            assertEquals(0, unbounded.clockSize());
+        } finally {
+            unbounded.close();
+        }
+    }
+
+    @Test
+    void containsFollowsAddRemoveAndRekeyBeyondFilterCapacity() {
+        for (int i = 0; i < 5000; i++) {
+            userStore.add(user(i));
+        }
+        userStore.remove(userStore.entry("user0@gmail.com"));
+        userStore.rekey(userStore.entry("user1@gmail.com"), "renamed@gmail.com");
+
+        for (int i = 2; i < 5000; i++) {
+            assertTrue(userStore.contains("user" + i + "@gmail.com"));
+        }
+        assertTrue(userStore.contains("renamed@gmail.com"));
+        assertFalse(userStore.contains("user0@gmail.com"));
+        assertFalse(userStore.contains("user1@gmail.com"));
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(userStore.contains("absent" + i + "@gmail.com"));
+        }
+        assertTrue(userStore.observedFalsePositiveRate() < 0.05);
+    }
+
+    @Test
+    void containsDoesNotWaitForTheStoreLock() throws Exception {
+        userStore.add(user(0));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (userStore) {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        holder.start();
+        locked.await();
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertTrue(userStore.contains("user0@gmail.com"));
+                assertFalse(userStore.contains("absent@gmail.com"));
+            });
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private static User user(int i) {
+        return new User("user" + i + "@gmail.com", "First" + i, "Last" + i, LocalDate.of(1990, 1, 1).plusDays(i),
+                "Address " + i, "+3805012345" + i);
+    }
+}